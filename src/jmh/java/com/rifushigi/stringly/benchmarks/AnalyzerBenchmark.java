@@ -0,0 +1,96 @@
+package com.rifushigi.stringly.benchmarks;
+
+import com.rifushigi.stringly.service.StringAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The property computations behind POST /strings: the original one-method-per-property
+ * code against the single-pass {@link StringAnalyzer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyzerBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int length;
+
+    @Param({"ASCII", "LATIN", "UNICODE"})
+    private Values.Alphabet alphabet;
+
+    @Param({"false", "true"})
+    private boolean palindrome;
+
+    private final StringAnalyzer analyzer = new StringAnalyzer();
+    private String value;
+
+    @Setup
+    public void setUp() {
+        String generated = Values.generate(palindrome ? length / 2 : length, alphabet, 42);
+        // Reversing by code point keeps surrogate pairs intact
+        value = palindrome ? generated + new StringBuilder(generated).reverse() : generated;
+    }
+
+    @Benchmark
+    public StringAnalyzer.Properties analyzer() {
+        return analyzer.analyse(value);
+    }
+
+    @Benchmark
+    public void original(Blackhole blackhole) {
+        blackhole.consume(computeLength(value));
+        blackhole.consume(computeIsPalindrome(value));
+        blackhole.consume(computeUniqueCharacters(value));
+        blackhole.consume(computeWordCount(value));
+        blackhole.consume(computeCharacterFrequencyMap(value));
+    }
+
+    private static Integer computeLength(String value) {
+        return value.length();
+    }
+
+    private static Boolean computeIsPalindrome(String value) {
+        String cleaned = value.toLowerCase();
+        String reversed = new StringBuilder(cleaned).reverse().toString();
+        return cleaned.equals(reversed);
+    }
+
+    private static Integer computeUniqueCharacters(String value) {
+        return (int) value.chars().distinct().count();
+    }
+
+    private static Integer computeWordCount(String value) {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return 0;
+        }
+        return trimmed.split("\\s+").length;
+    }
+
+    private static Map<String, Integer> computeCharacterFrequencyMap(String value) {
+        Map<String, Integer> frequencyMap = new HashMap<>();
+        for (char c : value.toCharArray()) {
+            String key = String.valueOf(c);
+            frequencyMap.put(key, frequencyMap.getOrDefault(key, 0) + 1);
+        }
+        return frequencyMap;
+    }
+}
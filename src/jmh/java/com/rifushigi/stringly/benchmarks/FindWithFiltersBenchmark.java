@@ -0,0 +1,96 @@
+package com.rifushigi.stringly.benchmarks;
+
+import com.rifushigi.stringly.entity.StringAnalysis;
+import com.rifushigi.stringly.repository.FilterCriteria;
+import com.rifushigi.stringly.repository.StorageEngine;
+import com.rifushigi.stringly.repository.StringAnalysisRepository;
+import com.rifushigi.stringly.service.Sha256Hasher;
+import com.rifushigi.stringly.service.StringAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * {@link StringAnalysisRepository#findWithFilters} for both storage engines over a
+ * range of filter combinations.
+ * <p>
+ * {@code filters} names the filters that are set: P is_palindrome, L min_length,
+ * M max_length, W word_count, C contains_character, S contains, B starts_with,
+ * E ends_with; "none" lists everything. The defaults cover each filter alone and a few
+ * combinations at 10k and 1M entries. Larger runs are opt-in, e.g.
+ * {@code -p entries=10000000 -jvmArgsAppend -Xmx24g}, or {@code -p filters=PL,PLM,...}
+ * for the full matrix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FindWithFiltersBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int entries;
+
+    @Param({"indexed", "columnar"})
+    private String engine;
+
+    @Param({"none", "P", "L", "M", "W", "C", "S", "B", "E", "PLC", "LWS", "BE", "PLMWC"})
+    private String filters;
+
+    private StringAnalysisRepository repository;
+    private FilterCriteria criteria;
+
+    @Setup
+    public void setUp() {
+        repository = new StringAnalysisRepository(StorageEngine.create(engine), Optional.empty());
+
+        StringAnalyzer analyzer = new StringAnalyzer();
+        Sha256Hasher hasher = new Sha256Hasher();
+        LocalDateTime now = LocalDateTime.now();
+        IntStream.range(0, entries).parallel().forEach(i -> {
+            String value = value(i);
+            StringAnalyzer.Properties properties = analyzer.analyse(value);
+            repository.save(new StringAnalysis(hasher.hash(value), value, properties.length(),
+                    properties.isPalindrome(), properties.uniqueCharacters(), properties.wordCount(),
+                    properties.characterFrequencyMap(), now));
+        });
+
+        criteria = new FilterCriteria(
+                filters.contains("P") ? Boolean.TRUE : null,
+                filters.contains("L") ? 10 : null,
+                filters.contains("M") ? 24 : null,
+                filters.contains("W") ? 3 : null,
+                filters.contains("C") ? "q" : null,
+                filters.contains("S") ? "qua" : null,
+                filters.contains("B") ? "st" : null,
+                filters.contains("E") ? "7" : null);
+    }
+
+    @Benchmark
+    public List<StringAnalysis> findWithFilters() {
+        return repository.findWithFilters(criteria);
+    }
+
+    // 4-40 chars of lower-case words; every tenth value is mirrored into a palindrome
+    private static String value(int i) {
+        SplittableRandom random = new SplittableRandom(i);
+        String value = Values.generate(4 + random.nextInt(37), Values.Alphabet.ASCII, i) + " #" + i;
+        return i % 10 == 0 ? value + new StringBuilder(value).reverse() : value;
+    }
+}
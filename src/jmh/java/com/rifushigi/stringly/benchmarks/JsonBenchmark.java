@@ -0,0 +1,60 @@
+package com.rifushigi.stringly.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.rifushigi.stringly.dto.StringAnalysisResponse;
+import com.rifushigi.stringly.entity.StringAnalysis;
+import com.rifushigi.stringly.service.Sha256Hasher;
+import com.rifushigi.stringly.service.StringAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering one {@link StringAnalysisResponse}, which includes building the response
+ * from the stored entity (hex id, frequency map) and writing the JSON bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int length;
+
+    @Param({"ASCII", "LATIN", "UNICODE"})
+    private Values.Alphabet alphabet;
+
+    // Same modules Spring Boot registers, so LocalDateTime is written as in the API
+    private final ObjectWriter writer = JsonMapper.builder().findAndAddModules().build()
+            .writerFor(StringAnalysisResponse.class);
+    private StringAnalysis analysis;
+
+    @Setup
+    public void setUp() {
+        String value = Values.generate(length, alphabet, 42);
+        StringAnalyzer.Properties properties = new StringAnalyzer().analyse(value);
+        analysis = new StringAnalysis(new Sha256Hasher().hash(value), value, properties.length(),
+                properties.isPalindrome(), properties.uniqueCharacters(), properties.wordCount(),
+                properties.characterFrequencyMap(), LocalDateTime.now());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(new StringAnalysisResponse(analysis));
+    }
+}
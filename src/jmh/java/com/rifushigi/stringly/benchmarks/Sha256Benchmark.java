@@ -0,0 +1,71 @@
+package com.rifushigi.stringly.benchmarks;
+
+import com.rifushigi.stringly.entity.Sha256Hash;
+import com.rifushigi.stringly.service.Sha256Hasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The id hashing done on every POST, GET and DELETE: the original implementation
+ * against {@link Sha256Hasher}, with and without producing hex.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Sha256Benchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int length;
+
+    @Param({"ASCII", "LATIN", "UNICODE"})
+    private Values.Alphabet alphabet;
+
+    private final Sha256Hasher hasher = new Sha256Hasher();
+    private String value;
+
+    @Setup
+    public void setUp() {
+        value = Values.generate(length, alphabet, 42);
+    }
+
+    @Benchmark
+    public String original() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = digest.digest(value.getBytes());
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+
+    @Benchmark
+    public Sha256Hash hasher() {
+        return hasher.hash(value);
+    }
+
+    @Benchmark
+    public String hasherToHex() {
+        return hasher.hash(value).toHex();
+    }
+}
@@ -0,0 +1,46 @@
+package com.rifushigi.stringly.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic benchmark inputs drawn from a few alphabets, so runs are comparable.
+ */
+public final class Values {
+
+    public enum Alphabet {
+        /** Lower-case letters and spaces. */
+        ASCII("abcdefghijklmnopqrstuvwxyz    "),
+        /** Mostly ASCII with accented Latin letters mixed in. */
+        LATIN("abcdefghijklmnopqrstuvwxyz  éèàüößç"),
+        /** CJK ideographs and emoji, all outside the ASCII fast paths. */
+        UNICODE("日本語中文字符 😀🚀");
+
+        private final String chars;
+
+        Alphabet(String chars) {
+            this.chars = chars;
+        }
+    }
+
+    private Values() {
+    }
+
+    public static String generate(int length, Alphabet alphabet, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder value = new StringBuilder(length);
+        String chars = alphabet.chars;
+        while (value.length() < length) {
+            int i = random.nextInt(chars.length());
+            char c = chars.charAt(i);
+            if (Character.isHighSurrogate(c)) {
+                if (value.length() + 2 > length) {
+                    continue;
+                }
+                value.append(c).append(chars.charAt(i + 1));
+            } else if (!Character.isLowSurrogate(c)) {
+                value.append(c);
+            }
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package com.rifushigi.stringly.cache;
+
+/**
+ * Counters of a {@link LruCache} since it was created. Evictions include both entries
+ * pushed out by the size bound and entries dropped on expiry or as no longer current.
+ */
+public record CacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,100 @@
+package com.rifushigi.stringly.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A bounded map that drops its least recently used entry when full and treats entries
+ * older than the time-to-live as absent. Operations take a single lock, which is fine
+ * for the small, hot key sets it is used for.
+ */
+public class LruCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public LruCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    /**
+     * @param clock source of monotonic nanoseconds, replaceable in tests
+     */
+    public LruCache(int maxSize, Duration ttl, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** The cached value, or {@code null} when absent or expired. */
+    public V get(K key) {
+        return get(key, value -> true);
+    }
+
+    /**
+     * The cached value if it is still {@code current}, or {@code null}. A value that is
+     * expired or no longer current is dropped and counted as a miss.
+     */
+    public V get(K key, Predicate<? super V> current) {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && now - entry.storedAt < ttlNanos && current.test(entry.value)) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(K key, V value) {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, now));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), size, maxSize);
+    }
+
+    private record Entry<V>(V value, long storedAt) {
+    }
+}
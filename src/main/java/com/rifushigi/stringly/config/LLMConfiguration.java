@@ -0,0 +1,44 @@
+package com.rifushigi.stringly.config;
+
+import com.rifushigi.stringly.service.CachingLLMService;
+import com.rifushigi.stringly.service.CircuitBreaker;
+import com.rifushigi.stringly.service.PromptService;
+import com.rifushigi.stringly.service.ResilientLLMService;
+import com.rifushigi.stringly.service.RuleBasedLLMService;
+import com.rifushigi.stringly.service.SingleFlightLLMService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Assembles the {@link com.rifushigi.stringly.service.LLMService} the controller sees:
+ * the model-backed {@link PromptService} wrapped in its decorators, outermost first.
+ * The rule-based parser sits in front of the cache so cache slots only go to queries
+ * that actually need the model.
+ */
+@Configuration
+public class LLMConfiguration {
+
+    @Bean
+    @Primary
+    public RuleBasedLLMService llmService(CachingLLMService cachingLlmService) {
+        return new RuleBasedLLMService(cachingLlmService);
+    }
+
+    @Bean
+    public CachingLLMService cachingLlmService(SingleFlightLLMService singleFlightLlmService, LLMProperties properties) {
+        return new CachingLLMService(singleFlightLlmService, properties.cache());
+    }
+
+    @Bean
+    public SingleFlightLLMService singleFlightLlmService(ResilientLLMService resilientLlmService) {
+        return new SingleFlightLLMService(resilientLlmService);
+    }
+
+    @Bean
+    public ResilientLLMService resilientLlmService(PromptService prompts, LLMProperties properties) {
+        LLMProperties.CircuitBreaker breaker = properties.circuitBreaker();
+        return new ResilientLLMService(prompts, properties.timeout(), properties.maxConcurrentCalls(),
+                new CircuitBreaker(breaker.failureThreshold(), breaker.openDuration()));
+    }
+}
@@ -0,0 +1,35 @@
+package com.rifushigi.stringly.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the chain of {@link com.rifushigi.stringly.service.LLMService} decorators
+ * in front of the model.
+ */
+@ConfigurationProperties("stringly.llm")
+public record LLMProperties(
+        @DefaultValue Cache cache,
+        @DefaultValue("10s") Duration timeout,
+        @DefaultValue("8") int maxConcurrentCalls,
+        @DefaultValue CircuitBreaker circuitBreaker
+) {
+
+    /**
+     * Parsed queries kept by {@link com.rifushigi.stringly.service.CachingLLMService}.
+     * A {@code max-size} of 0 turns the cache off.
+     */
+    public record Cache(
+            @DefaultValue("1000") int maxSize,
+            @DefaultValue("10m") Duration ttl
+    ) {
+    }
+
+    public record CircuitBreaker(
+            @DefaultValue("5") int failureThreshold,
+            @DefaultValue("30s") Duration openDuration
+    ) {
+    }
+}
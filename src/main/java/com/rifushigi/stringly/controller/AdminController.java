@@ -0,0 +1,78 @@
+package com.rifushigi.stringly.controller;
+
+import com.rifushigi.stringly.dto.CacheStatsResponse;
+import com.rifushigi.stringly.dto.ImportRequest;
+import com.rifushigi.stringly.dto.ImportStatusResponse;
+import com.rifushigi.stringly.dto.ParserStatsResponse;
+import com.rifushigi.stringly.importer.BulkImporter;
+import com.rifushigi.stringly.importer.ImportJob;
+import com.rifushigi.stringly.service.CachingLLMService;
+import com.rifushigi.stringly.service.FilterResultCache;
+import com.rifushigi.stringly.service.ResilientLLMService;
+import com.rifushigi.stringly.service.RuleBasedLLMService;
+import com.rifushigi.stringly.service.SingleFlightLLMService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final BulkImporter importer;
+    private final CachingLLMService llmCache;
+    private final FilterResultCache resultCache;
+    private final RuleBasedLLMService parser;
+    private final SingleFlightLLMService singleFlight;
+    private final ResilientLLMService model;
+
+    @PostMapping("/imports")
+    public ResponseEntity<ImportStatusResponse> startImport(@Valid @RequestBody ImportRequest request){
+        ImportJob job = importer.start(request.file(), request.format());
+        return new ResponseEntity<>(new ImportStatusResponse(job), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/imports")
+    public ResponseEntity<List<ImportStatusResponse>> listImports(){
+        return ResponseEntity.ok(importer.findAll().stream().map(ImportStatusResponse::new).toList());
+    }
+
+    @GetMapping("/imports/{id}")
+    public ResponseEntity<ImportStatusResponse> getImport(@PathVariable("id") long id){
+        return importer.find(id)
+                .map(job -> ResponseEntity.ok(new ImportStatusResponse(job)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/natural-language")
+    public ResponseEntity<ParserStatsResponse> naturalLanguageParserStats(){
+        return ResponseEntity.ok(new ParserStatsResponse(parser.stats(), singleFlight.coalesced(), model.stats()));
+    }
+
+    @GetMapping("/caches/natural-language")
+    public ResponseEntity<CacheStatsResponse> naturalLanguageCacheStats(){
+        return ResponseEntity.ok(new CacheStatsResponse(llmCache.stats()));
+    }
+
+    @DeleteMapping("/caches/natural-language")
+    public ResponseEntity<Void> clearNaturalLanguageCache(){
+        llmCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/caches/results")
+    public ResponseEntity<CacheStatsResponse> resultCacheStats(){
+        return ResponseEntity.ok(new CacheStatsResponse(resultCache.stats()));
+    }
+
+    @DeleteMapping("/caches/results")
+    public ResponseEntity<Void> clearResultCache(){
+        resultCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
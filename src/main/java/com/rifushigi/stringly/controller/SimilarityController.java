@@ -0,0 +1,60 @@
+package com.rifushigi.stringly.controller;
+
+import com.rifushigi.stringly.dto.AnagramResponse;
+import com.rifushigi.stringly.dto.SimilarityResponse;
+import com.rifushigi.stringly.dto.StringAnalysisResponse;
+import com.rifushigi.stringly.exception.BadQueryException;
+import com.rifushigi.stringly.service.StringAnalysisService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/strings/similar")
+public class SimilarityController {
+
+    private final StringAnalysisService sas;
+
+    // Under /similar so that it cannot shadow GET /strings/{string_value} for "anagrams"
+    @GetMapping("/anagrams")
+    public ResponseEntity<AnagramResponse> getAnagrams(
+            @RequestParam("value") String value,
+            @RequestParam(value = "match", defaultValue = "exact") String match
+    ) {
+        if (!match.equals("exact") && !match.equals("contains")) {
+            throw new BadQueryException("match must be 'exact' or 'contains'");
+        }
+        List<StringAnalysisResponse> data = sas.findAnagrams(value, match.equals("exact")).stream()
+                .map(StringAnalysisResponse::new)
+                .toList();
+        return ResponseEntity.ok(new AnagramResponse(value, match, data, (long) data.size()));
+    }
+
+    @GetMapping("/edit-distance")
+    public ResponseEntity<SimilarityResponse> withinEditDistance(
+            @RequestParam("value") String value,
+            @RequestParam(value = "max_distance", defaultValue = "2") int maxDistance
+    ) {
+        List<SimilarityResponse.Match> data = sas.findWithinDistance(value, maxDistance).stream()
+                .map(SimilarityResponse.Match::new)
+                .toList();
+        return ResponseEntity.ok(new SimilarityResponse(value, "edit_distance", data, (long) data.size()));
+    }
+
+    @GetMapping("/jaccard")
+    public ResponseEntity<SimilarityResponse> byJaccard(
+            @RequestParam("value") String value,
+            @RequestParam(value = "min_similarity", defaultValue = "0.5") double minSimilarity
+    ) {
+        List<SimilarityResponse.Match> data = sas.findSimilar(value, minSimilarity).stream()
+                .map(SimilarityResponse.Match::new)
+                .toList();
+        return ResponseEntity.ok(new SimilarityResponse(value, "jaccard", data, (long) data.size()));
+    }
+}
@@ -1,27 +1,52 @@
 package com.rifushigi.stringly.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.rifushigi.stringly.dto.*;
 import com.rifushigi.stringly.entity.StringAnalysis;
+import com.rifushigi.stringly.exception.BadQueryException;
+import com.rifushigi.stringly.metrics.SampledTimer;
+import com.rifushigi.stringly.metrics.StringlyMetrics;
+import com.rifushigi.stringly.repository.FilterCriteria;
+import com.rifushigi.stringly.service.BatchItem;
+import com.rifushigi.stringly.service.FilterResultCache;
 import com.rifushigi.stringly.service.LLMService;
+import com.rifushigi.stringly.service.ResultPage;
 import com.rifushigi.stringly.service.StringAnalysisService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/strings")
 public class StringAnalysisController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final int NDJSON_FLUSH_INTERVAL = 500;
+
     private final StringAnalysisService sas;
     private final LLMService llm;
+    private final ObjectMapper objectMapper;
+    private final FilterResultCache resultCache;
+    private final StringlyMetrics metrics;
 
     @PostMapping
     public ResponseEntity<StringAnalysisResponse> analyseString(@Valid @RequestBody StringRequest request){
@@ -31,6 +56,22 @@ public class StringAnalysisController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/upload", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<StringAnalysisResponse> uploadString(HttpServletRequest request) throws IOException {
+        String encoding = request.getCharacterEncoding();
+        if (encoding != null && !StandardCharsets.UTF_8.name().equalsIgnoreCase(encoding)) {
+            throw new BadQueryException("Uploads must be UTF-8 encoded");
+        }
+        StringAnalysis analysis = sas.analyseUpload(request.getInputStream(), request.getContentLengthLong());
+        return new ResponseEntity<>(new StringAnalysisResponse(analysis), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchStringResponse> analyseBatch(@Valid @RequestBody BatchStringRequest request){
+        List<BatchItem> items = sas.analyseBatch(request.values());
+        return ResponseEntity.ok(BatchStringResponse.of(items));
+    }
+
     @GetMapping("/{string_value}")
     public ResponseEntity<StringAnalysisResponse> getStringAnalysis(@PathVariable("string_value") String stringValue){
         Optional<StringAnalysis> analysis = sas.findByValue(stringValue);
@@ -39,38 +80,129 @@ public class StringAnalysisController {
     }
 
     @GetMapping
-    public ResponseEntity<FilteredAnalysisResponse> getAllStrings(
+    public ResponseEntity<byte[]> getAllStrings(
             @RequestParam(value = "is_palindrome", required = false) Boolean isPalindrome,
             @RequestParam(value = "min_length", required = false) Integer minLength,
             @RequestParam(value = "max_length", required = false) Integer maxLength,
             @RequestParam(value = "word_count", required = false) Integer wordCount,
-            @RequestParam(value = "contains_character", required = false) String containsCharacter
+            @RequestParam(value = "contains_character", required = false) String containsCharacter,
+            @RequestParam(value = "contains", required = false) String contains,
+            @RequestParam(value = "starts_with", required = false) String startsWith,
+            @RequestParam(value = "ends_with", required = false) String endsWith,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "explain", defaultValue = "false") boolean explain
     ){
-        List<StringAnalysis> results = sas.findWithFilters(isPalindrome, minLength, maxLength, wordCount, containsCharacter);
-        List<StringAnalysisResponse> data = results.stream()
+        // Folded up front so that filters differing only in case share a cache entry
+        FilterCriteria criteria = new FilterCriteria(isPalindrome, minLength, maxLength, wordCount, containsCharacter,
+                contains, startsWith, endsWith).folded();
+        if (explain) {
+            ExplainResponse response = new ExplainResponse(filtersApplied(criteria), sas.explain(criteria));
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(writeJson(response));
+        }
+        // Cache hits are written out as stored, skipping both the query and serialization
+        Integer pageSize = limit != null || cursor == null ? limit : Integer.valueOf(StringAnalysisService.DEFAULT_PAGE_SIZE);
+        FilterResultCache.Key key = new FilterResultCache.Key(criteria, cursor, pageSize);
+        byte[] body = resultCache.get(key, () -> writeJson(findStrings(criteria, pageSize, cursor)));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private FilteredAnalysisResponse findStrings(FilterCriteria criteria, Integer limit, String cursor) {
+        ParseResult filtersApplied = filtersApplied(criteria);
+        if (limit == null && cursor == null) {
+            List<StringAnalysisResponse> data = sas.findWithFilters(criteria)
+                    .stream()
+                    .map(StringAnalysisResponse::new)
+                    .toList();
+            return new FilteredAnalysisResponse(data, (long) data.size(), filtersApplied, null);
+        }
+
+        ResultPage page = sas.findPageWithFilters(criteria, cursor, limit);
+        List<StringAnalysisResponse> data = page.data().stream()
                 .map(StringAnalysisResponse::new)
                 .toList();
-        ParseResult filtersApplied = new ParseResult(isPalindrome, minLength, maxLength, wordCount, containsCharacter, null);
-        FilteredAnalysisResponse response = new FilteredAnalysisResponse(data, data.size(), filtersApplied);
+        return new FilteredAnalysisResponse(data, page.count(), filtersApplied, page.nextCursor());
+    }
 
-        return ResponseEntity.ok(response);
+    private static ParseResult filtersApplied(FilterCriteria criteria) {
+        return new ParseResult(criteria.isPalindrome(), criteria.minLength(), criteria.maxLength(), criteria.wordCount(),
+                criteria.containsCharacter(), criteria.contains(), criteria.startsWith(), criteria.endsWith(), null);
+    }
+
+    private static FilterCriteria criteria(ParseResult filters) {
+        return new FilterCriteria(filters.is_palindrome(), filters.min_length(), filters.max_length(), filters.word_count(),
+                filters.contains_character(), filters.contains(), filters.starts_with(), filters.ends_with());
+    }
+
+    private byte[] writeJson(Object value) {
+        SampledTimer timer = metrics.serialize();
+        long start = timer.start();
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        } finally {
+            timer.stop(start);
+        }
+    }
+
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public void streamAllStrings(
+            @RequestParam(value = "is_palindrome", required = false) Boolean isPalindrome,
+            @RequestParam(value = "min_length", required = false) Integer minLength,
+            @RequestParam(value = "max_length", required = false) Integer maxLength,
+            @RequestParam(value = "word_count", required = false) Integer wordCount,
+            @RequestParam(value = "contains_character", required = false) String containsCharacter,
+            @RequestParam(value = "contains", required = false) String contains,
+            @RequestParam(value = "starts_with", required = false) String startsWith,
+            @RequestParam(value = "ends_with", required = false) String endsWith,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        // Rows are serialized straight into the response; a blocked client write holds
+        // back the next batch, so only one batch is ever in memory.
+        ObjectWriter writer = objectMapper.writerFor(StringAnalysisResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        OutputStream out = response.getOutputStream();
+        try (Stream<StringAnalysis> results = sas.streamWithFilters(new FilterCriteria(
+                isPalindrome, minLength, maxLength, wordCount, containsCharacter, contains, startsWith, endsWith))) {
+            Iterator<StringAnalysis> rows = results.iterator();
+            int written = 0;
+            while (rows.hasNext()) {
+                writer.writeValue(out, new StringAnalysisResponse(rows.next()));
+                out.write('\n');
+                if (++written % NDJSON_FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
     }
 
     @GetMapping("/filter-by-natural-language")
-    public ResponseEntity<NaturalLanguageFilterResponse> filterByNaturalLanguage(@RequestParam("query") String query) throws Exception {
+    public ResponseEntity<NaturalLanguageFilterResponse> filterByNaturalLanguage(
+            @RequestParam("query") String query,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor
+    ) throws Exception {
         ParseResult parseResult = llm.parseQuery(query);
-        List<StringAnalysis> result = sas.findWithFilters(
-                parseResult.is_palindrome(),
-                parseResult.min_length(),
-                parseResult.max_length(),
-                parseResult.word_count(),
-                parseResult.contains_character()
-        );
-        List<String> data = result.stream().map(StringAnalysis::getValue).toList();
+        List<String> data;
+        Long count;
+        String nextCursor = null;
+        if (limit == null && cursor == null) {
+            data = sas.findWithFilters(criteria(parseResult)).stream().map(StringAnalysis::getValue).toList();
+            count = (long) data.size();
+        } else {
+            ResultPage page = sas.findPageWithFilters(criteria(parseResult), cursor, limit);
+            data = page.data().stream().map(StringAnalysis::getValue).toList();
+            count = page.count();
+            nextCursor = page.nextCursor();
+        }
         Map<String, Object> interpretedQuery = new HashMap<>();
         interpretedQuery.put("original", query);
         interpretedQuery.put("parsed_filters", parseResult);
-        NaturalLanguageFilterResponse response = new NaturalLanguageFilterResponse(data, data.size(), interpretedQuery);
+        NaturalLanguageFilterResponse response = new NaturalLanguageFilterResponse(data, count, interpretedQuery, nextCursor);
 
         return ResponseEntity.ok(response);
     }
@@ -0,0 +1,11 @@
+package com.rifushigi.stringly.dto;
+
+import java.util.List;
+
+public record AnagramResponse(
+        String value,
+        String match,
+        List<StringAnalysisResponse> data,
+        Long count
+) {
+}
@@ -0,0 +1,7 @@
+package com.rifushigi.stringly.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record BatchStringRequest(@NotNull List<String> values) {}
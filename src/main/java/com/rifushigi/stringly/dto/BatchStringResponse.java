@@ -0,0 +1,38 @@
+package com.rifushigi.stringly.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.rifushigi.stringly.service.BatchItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record BatchStringResponse(
+        List<Item> results,
+        int created,
+        int duplicates,
+        int invalid
+) {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Item(
+            String value,
+            String status,
+            String id
+    ){}
+
+    public static BatchStringResponse of(List<BatchItem> items) {
+        int created = 0;
+        int duplicates = 0;
+        int invalid = 0;
+        List<Item> results = new ArrayList<>(items.size());
+        for (BatchItem item : items) {
+            switch (item.status()) {
+                case CREATED -> created++;
+                case DUPLICATE -> duplicates++;
+                case INVALID -> invalid++;
+            }
+            String id = item.analysis() != null ? item.analysis().getId().toHex() : null;
+            results.add(new Item(item.value(), item.status().name().toLowerCase(), id));
+        }
+        return new BatchStringResponse(results, created, duplicates, invalid);
+    }
+}
@@ -0,0 +1,19 @@
+package com.rifushigi.stringly.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.rifushigi.stringly.cache.CacheStats;
+
+public record CacheStatsResponse(
+        long hits,
+        long misses,
+        long evictions,
+        int size,
+        @JsonProperty("max_size")
+        int maxSize,
+        @JsonProperty("hit_rate")
+        double hitRate
+) {
+    public CacheStatsResponse(CacheStats stats) {
+        this(stats.hits(), stats.misses(), stats.evictions(), stats.size(), stats.maxSize(), stats.hitRate());
+    }
+}
@@ -0,0 +1,37 @@
+package com.rifushigi.stringly.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.rifushigi.stringly.repository.QueryPlan;
+import com.rifushigi.stringly.service.Explanation;
+
+import java.util.List;
+
+public record ExplainResponse(
+        @JsonProperty("filters_applied")
+        ParseResult filtersApplied,
+        String engine,
+        List<Step> steps,
+        @JsonProperty("total_rows")
+        long totalRows,
+        @JsonProperty("estimated_rows")
+        long estimatedRows,
+        @JsonProperty("actual_rows")
+        long actualRows
+) {
+    public ExplainResponse(ParseResult filtersApplied, Explanation explanation) {
+        this(filtersApplied, explanation.plan().engine(),
+                explanation.plan().steps().stream().map(Step::new).toList(),
+                explanation.plan().totalRows(), explanation.plan().estimatedRows(), explanation.actualRows());
+    }
+
+    public record Step(
+            String access,
+            String predicate,
+            @JsonProperty("estimated_rows")
+            long estimatedRows
+    ) {
+        public Step(QueryPlan.Step step) {
+            this(step.access(), step.predicate(), step.estimatedRows());
+        }
+    }
+}
@@ -5,8 +5,10 @@ import java.util.List;
 
 public record FilteredAnalysisResponse(
         List<StringAnalysisResponse> data,
-        Integer count,
+        Long count,
         @JsonProperty(value = "filters_applied")
-        ParseResult filtersApplied
+        ParseResult filtersApplied,
+        @JsonProperty("next_cursor")
+        String nextCursor
 ) {
 }
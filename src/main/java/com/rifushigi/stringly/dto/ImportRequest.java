@@ -0,0 +1,6 @@
+package com.rifushigi.stringly.dto;
+
+import com.rifushigi.stringly.importer.ImportFormat;
+import jakarta.validation.constraints.NotBlank;
+
+public record ImportRequest(@NotBlank String file, ImportFormat format) {}
@@ -0,0 +1,38 @@
+package com.rifushigi.stringly.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.rifushigi.stringly.importer.ImportFormat;
+import com.rifushigi.stringly.importer.ImportJob;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportStatusResponse(
+        long id,
+        String file,
+        ImportFormat format,
+        String state,
+        @JsonProperty("total_bytes")
+        long totalBytes,
+        @JsonProperty("bytes_read")
+        long bytesRead,
+        long rows,
+        long created,
+        long duplicates,
+        long invalid,
+        @JsonProperty("elapsed_ms")
+        long elapsedMillis,
+        @JsonProperty("rows_per_second")
+        long rowsPerSecond,
+        String error
+) {
+    public ImportStatusResponse(ImportJob job) {
+        this(
+                job.getId(), job.getFile().getFileName().toString(), job.getFormat(),
+                job.getState().name().toLowerCase(),
+                job.getTotalBytes(), job.getBytesRead(),
+                job.getRows(), job.getCreated(), job.getDuplicates(), job.getInvalid(),
+                job.getElapsedMillis(), Math.round(job.getRowsPerSecond()),
+                job.getError()
+        );
+    }
+}
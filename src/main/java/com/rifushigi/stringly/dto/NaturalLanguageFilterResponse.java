@@ -7,8 +7,10 @@ import java.util.Map;
 
 public record NaturalLanguageFilterResponse (
         List<String> data,
-        Integer count,
+        Long count,
         @JsonProperty("interpreted_query")
-        Map<String, Object> parsedQuery
+        Map<String, Object> parsedQuery,
+        @JsonProperty("next_cursor")
+        String nextCursor
 ) {
 }
@@ -9,6 +9,9 @@ public record ParseResult(
         Integer max_length,
         Integer word_count,
         String contains_character,
+        String contains,
+        String starts_with,
+        String ends_with,
         ErrorDetail error
 ) {
     public record ErrorDetail(
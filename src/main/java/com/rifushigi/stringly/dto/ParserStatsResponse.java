@@ -0,0 +1,23 @@
+package com.rifushigi.stringly.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.rifushigi.stringly.service.CircuitBreaker;
+import com.rifushigi.stringly.service.ResilientLLMService;
+import com.rifushigi.stringly.service.RuleBasedLLMService;
+
+public record ParserStatsResponse(
+        long local,
+        long fallbacks,
+        @JsonProperty("fallback_rate")
+        double fallbackRate,
+        long coalesced,
+        CircuitBreaker.State circuit,
+        long rejected,
+        long timeouts,
+        long failures
+) {
+    public ParserStatsResponse(RuleBasedLLMService.Stats parser, long coalesced, ResilientLLMService.Stats model) {
+        this(parser.local(), parser.fallbacks(), parser.fallbackRate(), coalesced,
+                model.circuit(), model.rejected(), model.timeouts(), model.failures());
+    }
+}
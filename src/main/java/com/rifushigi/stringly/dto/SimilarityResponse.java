@@ -0,0 +1,29 @@
+package com.rifushigi.stringly.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.rifushigi.stringly.repository.EditDistanceMatch;
+import com.rifushigi.stringly.repository.JaccardMatch;
+
+import java.util.List;
+
+public record SimilarityResponse(
+        String value,
+        String metric,
+        List<Match> data,
+        Long count
+) {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Match(
+            StringAnalysisResponse string,
+            Integer distance,
+            Double similarity
+    ) {
+        public Match(EditDistanceMatch match) {
+            this(new StringAnalysisResponse(match.analysis()), match.distance(), null);
+        }
+
+        public Match(JaccardMatch match) {
+            this(new StringAnalysisResponse(match.analysis()), null, match.similarity());
+        }
+    }
+}
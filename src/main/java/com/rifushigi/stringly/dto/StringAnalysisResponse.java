@@ -35,14 +35,19 @@ public record StringAnalysisResponse(
     ){}
 
     public StringAnalysisResponse(StringAnalysis analysis){
+        this(analysis, analysis.getId().toHex());
+    }
+
+    // id and sha256_hash are the same digest, so it is hex-encoded once
+    private StringAnalysisResponse(StringAnalysis analysis, String hex){
         this(
-                analysis.getId(), analysis.getValue(),
+                hex, analysis.getValue(),
                 new Properties(
                         analysis.getLength(),
                         analysis.getIsPalindrome(),
                         analysis.getUniqueCharacters(),
                         analysis.getWordCount(),
-                        analysis.getSha256Hash(),
+                        hex,
                         analysis.getCharacterFrequencyMap()
                 ),
                 analysis.getCreatedAt()
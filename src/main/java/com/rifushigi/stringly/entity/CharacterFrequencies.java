@@ -0,0 +1,145 @@
+package com.rifushigi.stringly.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable per-character occurrence counts, held as two parallel primitive arrays sorted
+ * by character.
+ * <p>
+ * An entry costs six bytes here instead of a one-character {@code String}, a boxed
+ * {@code Integer} and a hash node. The class is still a read-only {@code Map<String, Integer>}
+ * so it serializes to the same JSON object; the {@code String} keys and entries are only
+ * created while the map is iterated.
+ */
+public final class CharacterFrequencies extends AbstractMap<String, Integer> {
+
+    private static final CharacterFrequencies EMPTY = new CharacterFrequencies(new char[0], new int[0]);
+
+    private final char[] characters;
+    private final int[] counts;
+
+    private CharacterFrequencies(char[] characters, int[] counts) {
+        this.characters = characters;
+        this.counts = counts;
+    }
+
+    /**
+     * Takes the first {@code size} entries of the two arrays, in any order. Characters
+     * must be distinct. The arrays are copied.
+     */
+    public static CharacterFrequencies of(char[] characters, int[] counts, int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+        long[] packed = new long[size];
+        for (int i = 0; i < size; i++) {
+            packed[i] = ((long) characters[i] << 32) | (counts[i] & 0xffffffffL);
+        }
+        Arrays.sort(packed);
+        char[] sortedCharacters = new char[size];
+        int[] sortedCounts = new int[size];
+        for (int i = 0; i < size; i++) {
+            sortedCharacters[i] = (char) (packed[i] >>> 32);
+            sortedCounts[i] = (int) packed[i];
+        }
+        return new CharacterFrequencies(sortedCharacters, sortedCounts);
+    }
+
+    @JsonCreator
+    public static CharacterFrequencies of(Map<String, Integer> frequencies) {
+        if (frequencies instanceof CharacterFrequencies compact) {
+            return compact;
+        }
+        char[] characters = new char[frequencies.size()];
+        int[] counts = new int[frequencies.size()];
+        int size = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            String key = entry.getKey();
+            if (key == null || key.length() != 1) {
+                throw new IllegalArgumentException("Frequency keys must be single characters: " + key);
+            }
+            characters[size] = key.charAt(0);
+            counts[size++] = entry.getValue();
+        }
+        return of(characters, counts, size);
+    }
+
+    /** Number of distinct characters. */
+    public int distinctCharacters() {
+        return characters.length;
+    }
+
+    /** The {@code index}-th distinct character, in ascending order. */
+    public char characterAt(int index) {
+        return characters[index];
+    }
+
+    /** Count of the {@code index}-th distinct character. */
+    public int countAt(int index) {
+        return counts[index];
+    }
+
+    /** Occurrences of {@code c}, or 0. */
+    public int count(char c) {
+        int index = Arrays.binarySearch(characters, c);
+        return index >= 0 ? counts[index] : 0;
+    }
+
+    @Override
+    public int size() {
+        return characters.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String s && s.length() == 1 && Arrays.binarySearch(characters, s.charAt(0)) >= 0;
+    }
+
+    @Override
+    public Integer get(Object key) {
+        if (!(key instanceof String s) || s.length() != 1) {
+            return null;
+        }
+        int index = Arrays.binarySearch(characters, s.charAt(0));
+        return index >= 0 ? counts[index] : null;
+    }
+
+    @Override
+    public Set<Entry<String, Integer>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Integer>> iterator() {
+                return new Iterator<>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < characters.length;
+                    }
+
+                    @Override
+                    public Entry<String, Integer> next() {
+                        if (index >= characters.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = index++;
+                        return new SimpleImmutableEntry<>(String.valueOf(characters[i]), counts[i]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return characters.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package com.rifushigi.stringly.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A SHA-256 digest held as four longs, used both as the id of a {@link StringAnalysis}
+ * and as its {@code sha256_hash}. Equality compares four words and the hash code is
+ * computed once, which makes it a cheaper map key than the 64-char hex string; hex is
+ * only produced for responses.
+ */
+public final class Sha256Hash {
+
+    public static final int BYTES = 32;
+
+    // Both hex digits of every byte value, so encoding takes one lookup per byte
+    private static final char[] HEX_PAIRS = new char[512];
+
+    static {
+        char[] digits = "0123456789abcdef".toCharArray();
+        for (int b = 0; b < 256; b++) {
+            HEX_PAIRS[b * 2] = digits[b >>> 4];
+            HEX_PAIRS[b * 2 + 1] = digits[b & 0xf];
+        }
+    }
+
+    private final long w0;
+    private final long w1;
+    private final long w2;
+    private final long w3;
+    private final int hashCode;
+
+    private Sha256Hash(long w0, long w1, long w2, long w3) {
+        this.w0 = w0;
+        this.w1 = w1;
+        this.w2 = w2;
+        this.w3 = w3;
+        // The words are already uniformly distributed, so folding them is enough
+        this.hashCode = Long.hashCode(w0 ^ w1 ^ w2 ^ w3);
+    }
+
+    public static Sha256Hash of(byte[] digest) {
+        if (digest.length != BYTES) {
+            throw new IllegalArgumentException("SHA-256 digest must be " + BYTES + " bytes");
+        }
+        return read(ByteBuffer.wrap(digest));
+    }
+
+    /** Reads 32 bytes at the buffer's position and advances it. */
+    public static Sha256Hash read(ByteBuffer in) {
+        return new Sha256Hash(in.getLong(), in.getLong(), in.getLong(), in.getLong());
+    }
+
+    @JsonCreator
+    public static Sha256Hash fromHex(String hex) {
+        if (hex == null || hex.length() != BYTES * 2) {
+            throw new IllegalArgumentException("SHA-256 hex must be " + BYTES * 2 + " characters");
+        }
+        return new Sha256Hash(parseWord(hex, 0), parseWord(hex, 16), parseWord(hex, 32), parseWord(hex, 48));
+    }
+
+    /** Writes the 32 digest bytes at the buffer's position and advances it. */
+    public void write(ByteBuffer out) {
+        out.putLong(w0).putLong(w1).putLong(w2).putLong(w3);
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer bytes = ByteBuffer.allocate(BYTES);
+        write(bytes);
+        return bytes.array();
+    }
+
+    @JsonValue
+    public String toHex() {
+        char[] hex = new char[BYTES * 2];
+        writeWord(hex, 0, w0);
+        writeWord(hex, 16, w1);
+        writeWord(hex, 32, w2);
+        writeWord(hex, 48, w3);
+        return new String(hex);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Sha256Hash other
+                && hashCode == other.hashCode
+                && w0 == other.w0 && w1 == other.w1 && w2 == other.w2 && w3 == other.w3;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+
+    private static long parseWord(String hex, int offset) {
+        long word = 0;
+        for (int i = offset; i < offset + 16; i++) {
+            int digit = Character.digit(hex.charAt(i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid SHA-256 hex: " + hex);
+            }
+            word = (word << 4) | digit;
+        }
+        return word;
+    }
+
+    private static void writeWord(char[] hex, int offset, long word) {
+        for (int i = offset + 14; i >= offset; i -= 2) {
+            int b = (int) (word & 0xff) << 1;
+            hex[i] = HEX_PAIRS[b];
+            hex[i + 1] = HEX_PAIRS[b + 1];
+            word >>>= 8;
+        }
+    }
+}
@@ -6,14 +6,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.Map;
 
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
 public class StringAnalysis {
 
-    private String id;
+    /** SHA-256 of the value; also reported as {@code sha256_hash}. */
+    private Sha256Hash id;
 
     private String value;
 
@@ -28,14 +28,15 @@ public class StringAnalysis {
     @JsonProperty("word_count")
     private Integer wordCount;
 
-    @JsonProperty("sha256_hash")
-    private String sha256Hash;
-
     @JsonProperty("character_frequency_map")
-    private Map<String, Integer> characterFrequencyMap;
+    private CharacterFrequencies characterFrequencyMap;
 
     @JsonProperty("created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    @JsonProperty("sha256_hash")
+    public Sha256Hash getSha256Hash() {
+        return id;
+    }
 
 }
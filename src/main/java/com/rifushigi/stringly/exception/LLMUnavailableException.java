@@ -0,0 +1,7 @@
+package com.rifushigi.stringly.exception;
+
+public class LLMUnavailableException extends RuntimeException{
+    public LLMUnavailableException(String message){
+        super(message);
+    }
+}
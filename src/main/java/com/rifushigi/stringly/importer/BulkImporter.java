@@ -0,0 +1,218 @@
+package com.rifushigi.stringly.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rifushigi.stringly.exception.BadQueryException;
+import com.rifushigi.stringly.service.BatchItem;
+import com.rifushigi.stringly.service.StringAnalysisService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loads newline-delimited files from the import directory straight into the store.
+ * <p>
+ * A reader thread splits the file into lines over memory-mapped windows and hands them
+ * out in batches of zero-copy slices; worker threads decode each batch and run it
+ * through {@link StringAnalysisService#analyseBatch}. At most two batches per worker are
+ * waiting at any time, so heap use does not depend on the size of the file.
+ */
+@Slf4j
+@Service
+public class BulkImporter {
+
+    private static final long PROGRESS_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final StringAnalysisService service;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int batchSize;
+    private final int workers;
+    private final long windowSize;
+    private final Map<Long, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong jobIds = new AtomicLong();
+    private final ExecutorService readers = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "stringly-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BulkImporter(StringAnalysisService service, ObjectMapper objectMapper, ImportProperties properties) {
+        if (properties.batchSize() < 1 || properties.batchSize() > StringAnalysisService.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("stringly.import.batch-size must be between 1 and "
+                    + StringAnalysisService.MAX_BATCH_SIZE);
+        }
+        this.service = service;
+        this.objectMapper = objectMapper;
+        this.directory = properties.directory().toAbsolutePath().normalize();
+        this.batchSize = properties.batchSize();
+        this.workers = properties.workers() > 0 ? properties.workers() : Runtime.getRuntime().availableProcessors();
+        this.windowSize = properties.windowSize().toBytes();
+    }
+
+    /**
+     * Starts importing {@code file}, resolved against the import directory, and returns
+     * immediately. Paths that leave the directory, including through symbolic links, are
+     * rejected.
+     */
+    public ImportJob start(String file, ImportFormat format) {
+        Path path;
+        try {
+            Path root = directory.toRealPath();
+            path = root.resolve(file).toRealPath();
+            if (!path.startsWith(root)) {
+                throw new BadQueryException("Import files must be inside the import directory");
+            }
+        } catch (IOException e) {
+            throw new BadQueryException("Import file not found: " + file);
+        }
+        if (!Files.isRegularFile(path) || !Files.isReadable(path)) {
+            throw new BadQueryException("Import file not found: " + file);
+        }
+        long size;
+        try {
+            size = Files.size(path);
+        } catch (IOException e) {
+            throw new BadQueryException("Import file not readable: " + file);
+        }
+        ImportJob job = new ImportJob(jobIds.incrementAndGet(), path, format == null ? ImportFormat.LINES : format, size);
+        jobs.put(job.getId(), job);
+        readers.execute(() -> run(job));
+        return job;
+    }
+
+    public Optional<ImportJob> find(long id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<ImportJob> findAll() {
+        return jobs.values().stream().sorted(Comparator.comparingLong(ImportJob::getId)).toList();
+    }
+
+    @PreDestroy
+    public void close() {
+        readers.shutdownNow();
+    }
+
+    private void run(ImportJob job) {
+        log.info("Importing {} ({} bytes, {})", job.getFile(), job.getTotalBytes(), job.getFormat());
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "stringly-import-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(workers * 2);
+        Phaser pending = new Phaser(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (FileChannel channel = FileChannel.open(job.getFile(), StandardOpenOption.READ)) {
+            List<ByteBuffer> batch = new ArrayList<>(batchSize);
+            long[] lastLog = {System.nanoTime()};
+            LineScanner.scan(channel, windowSize, (line, endOffset) -> {
+                batch.add(line);
+                if (batch.size() == batchSize) {
+                    dispatch(job, new ArrayList<>(batch), pool, inFlight, pending, failure);
+                    batch.clear();
+                    job.read(endOffset);
+                }
+                if (failure.get() != null) {
+                    return false;
+                }
+                long now = System.nanoTime();
+                if (now - lastLog[0] >= PROGRESS_LOG_INTERVAL_NANOS) {
+                    lastLog[0] = now;
+                    logProgress(job);
+                }
+                return true;
+            });
+            if (!batch.isEmpty() && failure.get() == null) {
+                dispatch(job, new ArrayList<>(batch), pool, inFlight, pending, failure);
+            }
+            pending.arriveAndAwaitAdvance();
+            job.read(job.getTotalBytes());
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            job.complete();
+            log.info("Imported {}: {} created, {} duplicate, {} invalid in {} ms ({} rows/s)", job.getFile(),
+                    job.getCreated(), job.getDuplicates(), job.getInvalid(), job.getElapsedMillis(),
+                    Math.round(job.getRowsPerSecond()));
+        } catch (Throwable e) {
+            Throwable cause = failure.get() != null ? failure.get() : e;
+            job.fail(cause);
+            log.error("Import of {} failed", job.getFile(), cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void dispatch(ImportJob job, List<ByteBuffer> lines, ExecutorService pool,
+                          Semaphore inFlight, Phaser pending, AtomicReference<Throwable> failure)
+            throws InterruptedException {
+        // Blocks the reader once enough batches are queued, which bounds memory use
+        inFlight.acquire();
+        pending.register();
+        pool.execute(() -> {
+            try {
+                List<String> values = new ArrayList<>(lines.size());
+                for (ByteBuffer line : lines) {
+                    values.add(decode(line, job.getFormat()));
+                }
+                job.record(service.analyseBatch(values));
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                inFlight.release();
+                pending.arriveAndDeregister();
+            }
+        });
+    }
+
+    private String decode(ByteBuffer line, ImportFormat format) {
+        int length = line.remaining();
+        if (length > 0 && line.get(length - 1) == '\r') {
+            length--;
+        }
+        byte[] bytes = new byte[length];
+        line.get(0, bytes);
+        if (format == ImportFormat.LINES) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        try {
+            JsonNode node = objectMapper.readTree(bytes);
+            if (node != null && node.isObject()) {
+                node = node.get("value");
+            }
+            // Anything else is reported as invalid by analyseBatch
+            return node != null && node.isTextual() ? node.textValue() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void logProgress(ImportJob job) {
+        double percent = job.getTotalBytes() == 0 ? 100 : job.getBytesRead() * 100.0 / job.getTotalBytes();
+        log.info("Importing {}: {}% read, {} rows, {} rows/s", job.getFile(), String.format("%.1f", percent),
+                job.getRows(), Math.round(job.getRowsPerSecond()));
+    }
+}
@@ -0,0 +1,12 @@
+package com.rifushigi.stringly.importer;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public enum ImportFormat {
+    /** One raw value per line. */
+    @JsonProperty("lines")
+    LINES,
+    /** One JSON document per line, either {@code {"value": "..."}} or a JSON string. */
+    @JsonProperty("ndjson")
+    NDJSON
+}
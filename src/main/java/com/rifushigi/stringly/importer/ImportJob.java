@@ -0,0 +1,127 @@
+package com.rifushigi.stringly.importer;
+
+import com.rifushigi.stringly.service.BatchItem;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one file import. Counters are updated by the reader and the workers
+ * while the import runs and can be read at any time.
+ */
+public class ImportJob {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final long id;
+    private final Path file;
+    private final ImportFormat format;
+    private final long totalBytes;
+    private final long startedAt = System.nanoTime();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+    private volatile State state = State.RUNNING;
+    private volatile long finishedAt;
+    private volatile String error;
+
+    ImportJob(long id, Path file, ImportFormat format, long totalBytes) {
+        this.id = id;
+        this.file = file;
+        this.format = format;
+        this.totalBytes = totalBytes;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public ImportFormat getFormat() {
+        return format;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public long getCreated() {
+        return created.get();
+    }
+
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    public long getInvalid() {
+        return invalid.get();
+    }
+
+    /** Lines processed so far, whatever their outcome. */
+    public long getRows() {
+        return created.get() + duplicates.get() + invalid.get();
+    }
+
+    public long getElapsedMillis() {
+        long end = state == State.RUNNING ? System.nanoTime() : finishedAt;
+        return TimeUnit.NANOSECONDS.toMillis(end - startedAt);
+    }
+
+    public double getRowsPerSecond() {
+        long elapsed = getElapsedMillis();
+        return elapsed == 0 ? 0 : getRows() * 1000.0 / elapsed;
+    }
+
+    void read(long offset) {
+        bytesRead.set(offset);
+    }
+
+    void record(List<BatchItem> items) {
+        int createdItems = 0;
+        int duplicateItems = 0;
+        int invalidItems = 0;
+        for (BatchItem item : items) {
+            switch (item.status()) {
+                case CREATED -> createdItems++;
+                case DUPLICATE -> duplicateItems++;
+                case INVALID -> invalidItems++;
+            }
+        }
+        created.addAndGet(createdItems);
+        duplicates.addAndGet(duplicateItems);
+        invalid.addAndGet(invalidItems);
+    }
+
+    void complete() {
+        finishedAt = System.nanoTime();
+        state = State.COMPLETED;
+    }
+
+    void fail(Throwable cause) {
+        finishedAt = System.nanoTime();
+        error = cause.getMessage();
+        state = State.FAILED;
+    }
+}
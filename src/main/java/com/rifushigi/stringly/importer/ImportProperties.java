@@ -0,0 +1,19 @@
+package com.rifushigi.stringly.importer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for {@link BulkImporter}. {@code workers} of 0 means one per available core.
+ */
+@ConfigurationProperties("stringly.import")
+public record ImportProperties(
+        @DefaultValue("imports") Path directory,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("0") int workers,
+        @DefaultValue("64MB") DataSize windowSize
+) {
+}
@@ -0,0 +1,61 @@
+package com.rifushigi.stringly.importer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Splits a file into lines through memory-mapped windows. Each line is handed out as a
+ * slice of the mapped window, so no bytes are copied here; a line cut by the end of a
+ * window is picked up again by the next one, which starts at that line.
+ */
+final class LineScanner {
+
+    interface LineSink {
+        /**
+         * @param line      the line without its {@code \n}, as a view of the mapped file
+         * @param endOffset file offset just past the line's terminator
+         * @return {@code false} to stop the scan after this line
+         */
+        boolean line(ByteBuffer line, long endOffset) throws InterruptedException;
+    }
+
+    private LineScanner() {
+    }
+
+    static void scan(FileChannel channel, long windowSize, LineSink sink) throws IOException, InterruptedException {
+        long size = channel.size();
+        long offset = 0;
+        long window = Math.min(Math.max(windowSize, 1), Integer.MAX_VALUE);
+        while (offset < size) {
+            int span = (int) Math.min(window, size - offset);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, span);
+            boolean last = offset + span == size;
+            int lineStart = 0;
+            for (int i = 0; i < span; i++) {
+                if (mapped.get(i) == '\n') {
+                    if (!sink.line(mapped.slice(lineStart, i - lineStart), offset + i + 1)) {
+                        return;
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            if (last) {
+                if (lineStart < span) {
+                    sink.line(mapped.slice(lineStart, span - lineStart), size);
+                }
+                return;
+            }
+            if (lineStart == 0) {
+                // Not a single line break in the window: widen it until the line fits
+                if (window == Integer.MAX_VALUE) {
+                    throw new IOException("Line at offset " + offset + " is longer than 2GB");
+                }
+                window = Math.min(window * 2, Integer.MAX_VALUE);
+            } else {
+                offset += lineStart;
+            }
+        }
+    }
+}
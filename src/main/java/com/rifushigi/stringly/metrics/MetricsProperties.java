@@ -0,0 +1,14 @@
+package com.rifushigi.stringly.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for {@link StringlyMetrics}. Hot-path timers time one call in
+ * {@code sample-every} at random; 1 times every call.
+ */
+@ConfigurationProperties("stringly.metrics")
+public record MetricsProperties(
+        @DefaultValue("16") int sampleEvery
+) {
+}
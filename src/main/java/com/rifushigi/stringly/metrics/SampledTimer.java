@@ -0,0 +1,48 @@
+package com.rifushigi.stringly.metrics;
+
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timer that only times one call in {@code sampleEvery}, picked at random, so an
+ * unsampled call costs one thread-local random draw. The recorded durations are a fair
+ * sample of the distribution; the timer's count is about {@code 1 / sampleEvery} of the
+ * calls made.
+ * <pre>
+ * long start = timer.start();
+ * ...
+ * timer.stop(start);
+ * </pre>
+ */
+public final class SampledTimer {
+
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final Timer timer;
+    private final int sampleEvery;
+
+    SampledTimer(Timer timer, int sampleEvery) {
+        this.timer = timer;
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    public long start() {
+        if (sampleEvery > 1 && ThreadLocalRandom.current().nextInt(sampleEvery) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    /** Whether the call {@code start} was returned for is being timed. */
+    public static boolean sampled(long start) {
+        return start != NOT_SAMPLED;
+    }
+
+    public void stop(long start) {
+        if (start != NOT_SAMPLED) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.rifushigi.stringly.metrics;
+
+import com.rifushigi.stringly.cache.CacheStats;
+import com.rifushigi.stringly.repository.StringAnalysisRepository;
+import com.rifushigi.stringly.service.CachingLLMService;
+import com.rifushigi.stringly.service.CircuitBreaker;
+import com.rifushigi.stringly.service.FilterResultCache;
+import com.rifushigi.stringly.service.ResilientLLMService;
+import com.rifushigi.stringly.service.RuleBasedLLMService;
+import com.rifushigi.stringly.service.SingleFlightLLMService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Gauges and counters read from the components' own statistics when the registry is
+ * scraped, so none of them cost anything on the request path.
+ */
+@Component
+@RequiredArgsConstructor
+public class StringlyMeterBinder implements MeterBinder {
+
+    private final StringAnalysisRepository repository;
+    private final FilterResultCache resultCache;
+    private final CachingLLMService llmCache;
+    private final RuleBasedLLMService parser;
+    private final SingleFlightLLMService singleFlight;
+    private final ResilientLLMService model;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("stringly.store.size", repository, StringAnalysisRepository::size)
+                .description("Strings stored")
+                .register(registry);
+        for (String index : repository.indexSizes().keySet()) {
+            Gauge.builder("stringly.index.size", repository, r -> r.indexSize(index))
+                    .description("Distinct keys in a secondary index")
+                    .tag("index", index)
+                    .register(registry);
+        }
+
+        bindCache(registry, "results", resultCache, FilterResultCache::stats);
+        bindCache(registry, "natural-language", llmCache, CachingLLMService::stats);
+
+        counter(registry, "stringly.llm.parsed", "Natural-language queries by where they were parsed",
+                parser, p -> p.stats().local(), "parser", "local");
+        counter(registry, "stringly.llm.parsed", "Natural-language queries by where they were parsed",
+                parser, p -> p.stats().fallbacks(), "parser", "model");
+        Gauge.builder("stringly.llm.fallback.rate", parser, p -> p.stats().fallbackRate())
+                .description("Fraction of natural-language queries the local parser passed on")
+                .register(registry);
+        FunctionCounter.builder("stringly.llm.coalesced", singleFlight, SingleFlightLLMService::coalesced)
+                .description("Queries that shared an identical in-flight model call")
+                .register(registry);
+
+        Gauge.builder("stringly.llm.circuit.state", model, m -> circuitState(m.stats().circuit()))
+                .description("Model circuit breaker: 0 closed, 1 half open, 2 open")
+                .register(registry);
+        counter(registry, "stringly.llm.refused", "Model calls that did not complete normally",
+                model, m -> m.stats().rejected(), "reason", "rejected");
+        counter(registry, "stringly.llm.refused", "Model calls that did not complete normally",
+                model, m -> m.stats().timeouts(), "reason", "timeout");
+        counter(registry, "stringly.llm.refused", "Model calls that did not complete normally",
+                model, m -> m.stats().failures(), "reason", "failure");
+    }
+
+    // Meters only hold their source weakly, so the source is the cache's owner bean
+    private static <T> void bindCache(MeterRegistry registry, String cache, T owner, Function<T, CacheStats> stats) {
+        counter(registry, "stringly.cache.requests", "Cache lookups by result",
+                owner, o -> stats.apply(o).hits(), "cache", cache, "result", "hit");
+        counter(registry, "stringly.cache.requests", "Cache lookups by result",
+                owner, o -> stats.apply(o).misses(), "cache", cache, "result", "miss");
+        FunctionCounter.builder("stringly.cache.evictions", owner, o -> stats.apply(o).evictions())
+                .description("Entries dropped for size, age or staleness")
+                .tag("cache", cache)
+                .register(registry);
+        Gauge.builder("stringly.cache.size", owner, o -> stats.apply(o).size())
+                .description("Entries held")
+                .tag("cache", cache)
+                .register(registry);
+        Gauge.builder("stringly.cache.hit.rate", owner, o -> stats.apply(o).hitRate())
+                .description("Fraction of lookups answered from the cache")
+                .tag("cache", cache)
+                .register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, String description,
+                                    T source, ToDoubleFunction<T> count, String... tags) {
+        FunctionCounter.builder(name, source, count)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static int circuitState(CircuitBreaker.State state) {
+        return switch (state) {
+            case CLOSED -> 0;
+            case HALF_OPEN -> 1;
+            case OPEN -> 2;
+        };
+    }
+}
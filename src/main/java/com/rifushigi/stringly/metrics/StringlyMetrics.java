@@ -0,0 +1,179 @@
+package com.rifushigi.stringly.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.InterruptedIOException;
+import java.net.http.HttpTimeoutException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The meters recorded from inside request handling. Hot paths use {@link SampledTimer}s;
+ * model calls are rare and slow enough to time every one.
+ */
+@Component
+public class StringlyMetrics {
+
+    private final Map<AnalysePath, SampledTimer> analyse;
+    private final SampledTimer hash;
+    private final Map<FilterPath, SampledTimer> filter;
+    private final Map<RepositoryCall, SampledTimer> repository;
+    private final SampledTimer serialize;
+    private final DistributionSummary selectivity;
+    private final Counter promptTokens;
+    private final Counter completionTokens;
+    private final Map<LlmOutcome, Timer> llmCalls = new EnumMap<>(LlmOutcome.class);
+
+    public StringlyMetrics(MeterRegistry registry, MetricsProperties properties) {
+        int every = properties.sampleEvery();
+        this.analyse = sampled(registry, "stringly.analyse", "Analysing and storing strings, by request path",
+                "path", AnalysePath.class, every);
+        this.hash = sampled(registry, "stringly.hash", "SHA-256 of one value", every);
+        this.filter = sampled(registry, "stringly.filter", "Running one filter query, by how its results are returned",
+                "path", FilterPath.class, every);
+        this.repository = sampled(registry, "stringly.repository", "One call into the repository",
+                "operation", RepositoryCall.class, every);
+        this.serialize = sampled(registry, "stringly.serialize", "Serializing one filter response", every);
+        this.selectivity = DistributionSummary.builder("stringly.filter.selectivity")
+                .description("Fraction of the stored strings a filter query matched")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(registry);
+        this.promptTokens = tokens(registry, "prompt");
+        this.completionTokens = tokens(registry, "completion");
+        for (LlmOutcome outcome : LlmOutcome.values()) {
+            llmCalls.put(outcome, Timer.builder("stringly.llm.call")
+                    .description("Model round trips for natural-language queries")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    /** Where strings are analysed: one JSON value, a batch or a raw upload. */
+    public enum AnalysePath {
+        SINGLE, BATCH, UPLOAD
+    }
+
+    /**
+     * How a filter query returns its rows: as one list, a page (with the count on the
+     * first one) or a stream, which is timed until it is closed.
+     */
+    public enum FilterPath {
+        LIST, PAGE, STREAM
+    }
+
+    /** The repository calls that are timed on their own. */
+    public enum RepositoryCall {
+        FIND, PAGE, COUNT, INSERT, INSERT_BATCH
+    }
+
+    /** How a model call ended, kept to a fixed set so the outcome tag stays bounded. */
+    public enum LlmOutcome {
+        SUCCESS, TIMEOUT, REJECTED, FAILURE;
+
+        /**
+         * The outcome of a call that threw {@code failure}: a timeout anywhere in the
+         * cause chain, or an interrupt from the caller giving up, is a timeout; the
+         * provider answering 429 or 503 is a rejection; anything else is a failure.
+         */
+        public static LlmOutcome of(Throwable failure) {
+            if (Thread.currentThread().isInterrupted()) {
+                return TIMEOUT;
+            }
+            for (Throwable t = failure; t != null; t = t.getCause()) {
+                if (t instanceof TimeoutException || t instanceof HttpTimeoutException
+                        || t instanceof InterruptedIOException) {
+                    return TIMEOUT;
+                }
+                if (t instanceof RestClientResponseException response) {
+                    int status = response.getStatusCode().value();
+                    if (status == 429 || status == 503) {
+                        return REJECTED;
+                    }
+                }
+            }
+            return FAILURE;
+        }
+    }
+
+    public SampledTimer analyse(AnalysePath path) {
+        return analyse.get(path);
+    }
+
+    public SampledTimer hash() {
+        return hash;
+    }
+
+    public SampledTimer filter(FilterPath path) {
+        return filter.get(path);
+    }
+
+    public SampledTimer repository(RepositoryCall call) {
+        return repository.get(call);
+    }
+
+    public SampledTimer serialize() {
+        return serialize;
+    }
+
+    /** Records how many of {@code storeSize} rows a filter query returned. */
+    public void filterMatched(long matches, long storeSize) {
+        if (storeSize > 0) {
+            selectivity.record((double) matches / storeSize);
+        }
+    }
+
+    /** Times one model call under its {@link LlmOutcome}. */
+    public void llmCall(long nanos, LlmOutcome outcome) {
+        llmCalls.get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void llmTokens(Integer prompt, Integer completion) {
+        if (prompt != null) {
+            promptTokens.increment(prompt);
+        }
+        if (completion != null) {
+            completionTokens.increment(completion);
+        }
+    }
+
+    private static SampledTimer sampled(MeterRegistry registry, String name, String description, int every) {
+        Timer timer = Timer.builder(name)
+                .description(description)
+                .tag("sampled", "1/" + Math.max(1, every))
+                .publishPercentileHistogram()
+                .register(registry);
+        return new SampledTimer(timer, every);
+    }
+
+    private static <E extends Enum<E>> Map<E, SampledTimer> sampled(MeterRegistry registry, String name,
+                                                                    String description, String tag,
+                                                                    Class<E> values, int every) {
+        Map<E, SampledTimer> timers = new EnumMap<>(values);
+        for (E value : values.getEnumConstants()) {
+            Timer timer = Timer.builder(name)
+                    .description(description)
+                    .tag(tag, value.name().toLowerCase(Locale.ROOT))
+                    .tag("sampled", "1/" + Math.max(1, every))
+                    .publishPercentileHistogram()
+                    .register(registry);
+            timers.put(value, new SampledTimer(timer, every));
+        }
+        return timers;
+    }
+
+    private static Counter tokens(MeterRegistry registry, String type) {
+        return Counter.builder("stringly.llm.tokens")
+                .description("Tokens used by model calls")
+                .tag("type", type)
+                .register(registry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.rifushigi.stringly.persistence;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+final class Directories {
+
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+
+    private Directories() {
+    }
+
+    /**
+     * Forces a directory's entries to disk, so that files created, renamed or deleted in
+     * it so far cannot be lost or reordered with later changes by a crash. Windows cannot
+     * open a directory as a channel, and makes its metadata updates durable itself.
+     */
+    static void force(Path directory) throws IOException {
+        if (WINDOWS) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.rifushigi.stringly.persistence;
+
+public enum FsyncPolicy {
+    /** Every write waits until its record has been forced to disk (group-committed). */
+    ALWAYS,
+    /** Writes wait for the file write; the log is forced at most once per fsync interval. */
+    BATCH,
+    /** Writes wait for the file write; flushing to disk is left to the OS. */
+    OS
+}
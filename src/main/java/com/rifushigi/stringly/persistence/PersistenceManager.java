@@ -0,0 +1,167 @@
+package com.rifushigi.stringly.persistence;
+
+import com.rifushigi.stringly.entity.Sha256Hash;
+import com.rifushigi.stringly.entity.StringAnalysis;
+import com.rifushigi.stringly.repository.FilterCriteria;
+import com.rifushigi.stringly.repository.StorageEngine;
+import com.rifushigi.stringly.repository.StorageJournal;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Makes the in-memory store survive restarts. Every write is appended to the
+ * {@link WriteAheadLog}; a snapshot of the whole store is written periodically, after
+ * which older log segments are deleted. On startup the latest snapshot is loaded and
+ * the log segments written after it are replayed, before the repository takes traffic.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stringly.persistence.enabled", havingValue = "true")
+public class PersistenceManager implements StorageJournal {
+
+    private static final FilterCriteria EVERY_ROW = new FilterCriteria(null, null, null, null, null);
+    private static final int SNAPSHOT_BATCH_SIZE = 1000;
+
+    private final StorageEngine engine;
+    private final Path directory;
+    private final WriteAheadLog writeAheadLog;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong writesSinceSnapshot = new AtomicLong();
+
+    public PersistenceManager(StorageEngine engine, PersistenceProperties properties) throws IOException {
+        this.engine = engine;
+        this.directory = properties.directory();
+        Files.createDirectories(directory);
+
+        long nextSegment = recover();
+        this.writeAheadLog = new WriteAheadLog(directory, nextSegment, properties.fsync(), properties.fsyncInterval());
+
+        long interval = properties.snapshotInterval().toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "stringly-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::scheduledSnapshot, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public CompletableFuture<Void> saved(StringAnalysis analysis) {
+        writesSinceSnapshot.incrementAndGet();
+        return writeAheadLog.append(WriteAheadLog.SAVE, StringAnalysisCodec.encode(analysis));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleted(Sha256Hash id) {
+        writesSinceSnapshot.incrementAndGet();
+        return writeAheadLog.append(WriteAheadLog.DELETE, StringAnalysisCodec.encodeId(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> cleared() {
+        writesSinceSnapshot.incrementAndGet();
+        return writeAheadLog.append(WriteAheadLog.CLEAR, new byte[0]);
+    }
+
+    /**
+     * Starts a new log segment, writes every entry to a snapshot tagged with that segment
+     * and drops the files the snapshot supersedes. Rows are read a batch at a time rather
+     * than copied out first. Entries written while the snapshot runs are also in the new
+     * segment, and replaying them over the snapshot is idempotent. Only the writes the
+     * snapshot covers are taken off the pending count, and only once it is on disk, so a
+     * failed snapshot is retried on the next tick.
+     */
+    public synchronized void snapshot() throws IOException {
+        long covered = writesSinceSnapshot.get();
+        long segment = writeAheadLog.rotate();
+        long written;
+        try (Stream<StringAnalysis> rows = engine.stream(EVERY_ROW, SNAPSHOT_BATCH_SIZE)) {
+            written = SnapshotFile.write(directory.resolve(SnapshotFile.snapshotName(segment)), rows.iterator());
+        }
+        writesSinceSnapshot.addAndGet(-covered);
+        log.info("Wrote snapshot of {} entries at log segment {}", written, segment);
+
+        for (long older : numbered("snapshot-", ".bin")) {
+            if (older < segment) {
+                Files.deleteIfExists(directory.resolve(SnapshotFile.snapshotName(older)));
+            }
+        }
+        for (long older : numbered("log-", ".log")) {
+            if (older < segment) {
+                Files.deleteIfExists(directory.resolve(WriteAheadLog.segmentName(older)));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        scheduler.shutdownNow();
+        writeAheadLog.close();
+    }
+
+    private void scheduledSnapshot() {
+        if (writesSinceSnapshot.get() == 0) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (IOException e) {
+            log.error("Snapshot failed; the log keeps growing until the next attempt", e);
+        }
+    }
+
+    // Returns the segment number the log should continue with
+    private long recover() throws IOException {
+        long base = 0;
+        List<Long> snapshots = numbered("snapshot-", ".bin");
+        if (!snapshots.isEmpty()) {
+            base = snapshots.get(snapshots.size() - 1);
+            long loaded = SnapshotFile.load(directory.resolve(SnapshotFile.snapshotName(base)), engine::save);
+            log.info("Loaded {} entries from snapshot at log segment {}", loaded, base);
+        }
+
+        long next = base;
+        long replayed = 0;
+        for (long segment : numbered("log-", ".log")) {
+            if (segment >= base) {
+                replayed += WriteAheadLog.replay(directory.resolve(WriteAheadLog.segmentName(segment)), this::apply);
+                next = segment + 1;
+            }
+        }
+        log.info("Replayed {} log records", replayed);
+        return next;
+    }
+
+    private void apply(byte type, ByteBuffer payload) {
+        switch (type) {
+            case WriteAheadLog.SAVE -> engine.save(StringAnalysisCodec.decode(payload));
+            case WriteAheadLog.DELETE -> engine.deleteById(StringAnalysisCodec.decodeId(payload));
+            case WriteAheadLog.CLEAR -> engine.deleteAll();
+            default -> throw new IllegalStateException("Unknown log record type " + type);
+        }
+    }
+
+    private List<Long> numbered(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
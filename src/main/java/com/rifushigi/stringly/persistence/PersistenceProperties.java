@@ -0,0 +1,17 @@
+package com.rifushigi.stringly.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties("stringly.persistence")
+public record PersistenceProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data") Path directory,
+        @DefaultValue("batch") FsyncPolicy fsync,
+        @DefaultValue("50ms") Duration fsyncInterval,
+        @DefaultValue("10m") Duration snapshotInterval
+) {
+}
@@ -0,0 +1,96 @@
+package com.rifushigi.stringly.persistence;
+
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Compact dump of every stored entry: a header followed by length-prefixed records in
+ * {@link StringAnalysisCodec} form. Files are written to a temporary name, forced and
+ * renamed into place, with the directory forced after the rename, and are read back
+ * through memory-mapped windows.
+ */
+final class SnapshotFile {
+
+    private static final int MAGIC = 0x53544e47;
+    private static final int VERSION = 4;
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final long COUNT_OFFSET = 8;
+
+    private SnapshotFile() {
+    }
+
+    static String snapshotName(long segment) {
+        return String.format("snapshot-%020d.bin", segment);
+    }
+
+    /**
+     * Writes the rows as they are pulled from {@code rows}, so only the one being encoded
+     * is held; the record count is filled into the header at the end.
+     */
+    static long write(Path target, Iterator<StringAnalysis> rows) throws IOException {
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(0L);
+            while (rows.hasNext()) {
+                byte[] record = StringAnalysisCodec.encode(rows.next());
+                out.writeInt(record.length);
+                out.write(record);
+                count++;
+            }
+            out.flush();
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, count), COUNT_OFFSET);
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // The rename must be durable before the caller deletes what the snapshot replaces
+        Directories.force(target.toAbsolutePath().getParent());
+        return count;
+    }
+
+    static long load(Path file, Consumer<StringAnalysis> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long offset = 0;
+            ByteBuffer window = map(channel, offset, size);
+            if (window.remaining() < 16 || window.getInt() != MAGIC || window.getInt() != VERSION) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            long count = window.getLong();
+            for (long i = 0; i < count; i++) {
+                if (window.remaining() < 4 || window.remaining() < 4 + window.getInt(window.position())) {
+                    // Slide the window forward so the next record is fully mapped
+                    offset += window.position();
+                    window = map(channel, offset, size);
+                    if (window.remaining() < 4 || window.remaining() < 4 + window.getInt(window.position())) {
+                        throw new IOException("Truncated snapshot file: " + file);
+                    }
+                }
+                int length = window.getInt();
+                sink.accept(StringAnalysisCodec.decode(window.slice(window.position(), length)));
+                window.position(window.position() + length);
+            }
+            return count;
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long offset, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE, size - offset));
+    }
+}
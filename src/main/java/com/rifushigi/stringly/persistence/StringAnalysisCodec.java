@@ -0,0 +1,89 @@
+package com.rifushigi.stringly.persistence;
+
+import com.rifushigi.stringly.entity.CharacterFrequencies;
+import com.rifushigi.stringly.entity.Sha256Hash;
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary form of a {@link StringAnalysis} shared by the log and the snapshots. The value
+ * is a length-prefixed run of raw UTF-16 chars, and so are the frequency keys: a lone
+ * surrogate does not survive UTF-8, and the row must still hash to its id on recovery.
+ */
+final class StringAnalysisCodec {
+
+    private StringAnalysisCodec() {
+    }
+
+    static byte[] encode(StringAnalysis analysis) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + analysis.getValue().length() * 2);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(analysis.getId().toBytes());
+            writeString(out, analysis.getValue());
+            out.writeInt(analysis.getLength());
+            out.writeBoolean(analysis.getIsPalindrome());
+            out.writeInt(analysis.getUniqueCharacters());
+            out.writeInt(analysis.getWordCount());
+            CharacterFrequencies frequencies = analysis.getCharacterFrequencyMap();
+            out.writeInt(frequencies.distinctCharacters());
+            for (int i = 0; i < frequencies.distinctCharacters(); i++) {
+                out.writeChar(frequencies.characterAt(i));
+                out.writeInt(frequencies.countAt(i));
+            }
+            LocalDateTime createdAt = analysis.getCreatedAt();
+            out.writeLong(createdAt.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(createdAt.getNano());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static StringAnalysis decode(ByteBuffer in) {
+        Sha256Hash id = Sha256Hash.read(in);
+        String value = readString(in);
+        int length = in.getInt();
+        boolean isPalindrome = in.get() != 0;
+        int uniqueCharacters = in.getInt();
+        int wordCount = in.getInt();
+        int distinct = in.getInt();
+        char[] characters = new char[distinct];
+        int[] counts = new int[distinct];
+        for (int i = 0; i < distinct; i++) {
+            characters[i] = in.getChar();
+            counts[i] = in.getInt();
+        }
+        CharacterFrequencies frequencies = CharacterFrequencies.of(characters, counts, distinct);
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+        return new StringAnalysis(id, value, length, isPalindrome, uniqueCharacters, wordCount,
+                frequencies, createdAt);
+    }
+
+    static byte[] encodeId(Sha256Hash id) {
+        return id.toBytes();
+    }
+
+    static Sha256Hash decodeId(ByteBuffer in) {
+        return Sha256Hash.read(in);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        out.writeInt(s.length());
+        out.writeChars(s);
+    }
+
+    private static String readString(ByteBuffer in) {
+        char[] chars = new char[in.getInt()];
+        in.asCharBuffer().get(chars);
+        in.position(in.position() + chars.length * 2);
+        return new String(chars);
+    }
+}
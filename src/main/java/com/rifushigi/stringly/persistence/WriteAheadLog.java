@@ -0,0 +1,243 @@
+package com.rifushigi.stringly.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log split into numbered segments. Appends are queued and a single writer
+ * thread drains the queue, so every batch costs one gathering write and, depending on
+ * the {@link FsyncPolicy}, at most one force.
+ *
+ * <p>Each record is framed as {@code [int length][byte type][payload][int crc32]}, with
+ * the checksum over type and payload. Replay stops at the first torn or corrupt frame
+ * and truncates the segment there.
+ */
+@Slf4j
+final class WriteAheadLog implements Closeable {
+
+    static final byte SAVE = 1;
+    static final byte DELETE = 2;
+    static final byte CLEAR = 3;
+
+    private static final int FRAME_OVERHEAD = 9;
+    private static final int MAX_BATCH = 1024;
+
+    private final Path directory;
+    private final FsyncPolicy policy;
+    private final long fsyncIntervalNanos;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    // Held by the writer for each batch and by rotate() while it swaps segments
+    private final ReentrantLock channelLock = new ReentrantLock();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private FileChannel channel;
+    private long segment;
+    private boolean unforced;
+    private long lastForce = System.nanoTime();
+
+    WriteAheadLog(Path directory, long segment, FsyncPolicy policy, Duration fsyncInterval) throws IOException {
+        this.directory = directory;
+        this.policy = policy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.segment = segment;
+        this.channel = open(segment);
+        this.writer = new Thread(this::drain, "stringly-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    static String segmentName(long segment) {
+        return String.format("log-%020d.log", segment);
+    }
+
+    CompletableFuture<Void> append(byte type, byte[] payload) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (closed) {
+            done.completeExceptionally(new IllegalStateException("Log is closed"));
+            return done;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_OVERHEAD + payload.length)
+                .putInt(payload.length)
+                .put(type)
+                .put(payload)
+                .putInt((int) crc.getValue())
+                .flip();
+        queue.add(new Pending(frame, done));
+        return done;
+    }
+
+    /**
+     * Forces and closes the current segment and starts the next one. Records queued
+     * after this call returns land in the returned segment or a later one.
+     */
+    long rotate() throws IOException {
+        channelLock.lock();
+        try {
+            channel.force(false);
+            channel.close();
+            segment++;
+            channel = open(segment);
+            unforced = false;
+            return segment;
+        } finally {
+            channelLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channelLock.lock();
+        try {
+            channel.force(false);
+            channel.close();
+        } finally {
+            channelLock.unlock();
+        }
+    }
+
+    /**
+     * Feeds every intact record of a segment to the handler and returns how many were
+     * applied. A torn or corrupt tail, left by a crash mid-write, is truncated away.
+     */
+    static long replay(Path file, RecordHandler handler) throws IOException {
+        long applied = 0;
+        long validLength = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+            CRC32 crc = new CRC32();
+            long size = channel.size();
+            while (true) {
+                try {
+                    int length = in.readInt();
+                    if (length < 0 || validLength + FRAME_OVERHEAD + length > size) {
+                        break;
+                    }
+                    byte type = in.readByte();
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    int checksum = in.readInt();
+                    crc.reset();
+                    crc.update(type);
+                    crc.update(payload);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                    handler.apply(type, ByteBuffer.wrap(payload));
+                    validLength += FRAME_OVERHEAD + length;
+                    applied++;
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+            if (validLength < size) {
+                log.warn("Truncating {} at byte {} of {}: incomplete or corrupt record", file, validLength, size);
+                channel.truncate(validLength);
+            }
+        }
+        return applied;
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        long pollNanos = Math.max(fsyncIntervalNanos, TimeUnit.MILLISECONDS.toNanos(1));
+        while (true) {
+            Pending first;
+            try {
+                first = queue.poll(pollNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                if (closed && queue.isEmpty()) {
+                    return;
+                }
+                writeBatch(batch);
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, MAX_BATCH - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Pending> batch) {
+        channelLock.lock();
+        try {
+            if (!batch.isEmpty()) {
+                ByteBuffer[] frames = new ByteBuffer[batch.size()];
+                long remaining = 0;
+                for (int i = 0; i < frames.length; i++) {
+                    frames[i] = batch.get(i).frame();
+                    remaining += frames[i].remaining();
+                }
+                while (remaining > 0) {
+                    remaining -= channel.write(frames);
+                }
+                unforced = true;
+            }
+            if (unforced && (policy == FsyncPolicy.ALWAYS
+                    || policy == FsyncPolicy.BATCH && System.nanoTime() - lastForce >= fsyncIntervalNanos)) {
+                channel.force(false);
+                unforced = false;
+                lastForce = System.nanoTime();
+            }
+            batch.forEach(p -> p.done().complete(null));
+        } catch (IOException e) {
+            log.error("Failed to append {} record(s) to {}", batch.size(), segmentName(segment), e);
+            batch.forEach(p -> p.done().completeExceptionally(e));
+        } finally {
+            channelLock.unlock();
+        }
+    }
+
+    // The directory is forced so that a crash cannot keep records but lose their segment
+    private FileChannel open(long segment) throws IOException {
+        FileChannel opened = FileChannel.open(directory.resolve(segmentName(segment)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        try {
+            Directories.force(directory);
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+        return opened;
+    }
+
+    @FunctionalInterface
+    interface RecordHandler {
+        void apply(byte type, ByteBuffer payload);
+    }
+
+    private record Pending(ByteBuffer frame, CompletableFuture<Void> done) {}
+}
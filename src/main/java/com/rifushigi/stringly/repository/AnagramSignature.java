@@ -0,0 +1,70 @@
+package com.rifushigi.stringly.repository;
+
+import com.rifushigi.stringly.entity.CharacterFrequencies;
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+import java.util.Arrays;
+
+/**
+ * Canonical forms of a character multiset. Two values are anagrams exactly when their
+ * signatures are equal: the signature lists the distinct characters in ascending order,
+ * each followed by its count as two chars, so it hashes and compares as a plain string.
+ * Characters are taken as stored, so case and whitespace count.
+ */
+final class AnagramSignature {
+
+    private AnagramSignature() {
+    }
+
+    static String of(CharacterFrequencies frequencies) {
+        char[] signature = new char[frequencies.distinctCharacters() * 3];
+        for (int i = 0; i < frequencies.distinctCharacters(); i++) {
+            int count = frequencies.countAt(i);
+            signature[i * 3] = frequencies.characterAt(i);
+            signature[i * 3 + 1] = (char) (count >>> 16);
+            signature[i * 3 + 2] = (char) count;
+        }
+        return new String(signature);
+    }
+
+    /** The row's frequency map, counted from the value for rows stored without one. */
+    static CharacterFrequencies frequencies(StringAnalysis analysis) {
+        if (analysis.getCharacterFrequencyMap() != null) {
+            return analysis.getCharacterFrequencyMap();
+        }
+        char[] sorted = analysis.getValue().toCharArray();
+        Arrays.sort(sorted);
+        char[] characters = new char[sorted.length];
+        int[] counts = new int[sorted.length];
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                characters[size++] = sorted[i];
+            }
+            counts[size - 1]++;
+        }
+        return CharacterFrequencies.of(characters, counts, size);
+    }
+
+    /** Whether {@code have} holds at least as many of every character as {@code need}. */
+    static boolean covers(CharacterFrequencies have, CharacterFrequencies need) {
+        if (have.distinctCharacters() < need.distinctCharacters()) {
+            return false;
+        }
+        for (int i = 0; i < need.distinctCharacters(); i++) {
+            if (have.count(need.characterAt(i)) < need.countAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Number of characters in the multiset, counting repeats. */
+    static long total(CharacterFrequencies frequencies) {
+        long total = 0;
+        for (int i = 0; i < frequencies.distinctCharacters(); i++) {
+            total += frequencies.countAt(i);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,232 @@
+package com.rifushigi.stringly.repository;
+
+import com.rifushigi.stringly.entity.Sha256Hash;
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * A BK-tree over stored values under Levenshtein distance. Each child hangs off its
+ * parent by its distance to it, so by the triangle inequality a search for values
+ * within {@code k} of a query at distance {@code d} from a node only descends into the
+ * children keyed {@code d - k} to {@code d + k}.
+ * <p>
+ * Values longer than {@link #MAX_LENGTH} are left out, since every distance costs the
+ * product of the two lengths. A search is still exact as long as the query is at most
+ * {@code MAX_LENGTH - k} long, because no longer value can be within {@code k} of it.
+ * <p>
+ * Removal only marks the node dead, as its children are placed relative to it; the
+ * tree is rebuilt from the live nodes once the dead ones outnumber them.
+ */
+final class BkTree {
+
+    static final int MAX_LENGTH = 256;
+
+    private static final int MIN_REBUILD_SIZE = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root;
+    private int live;
+    private int dead;
+
+    void add(Sha256Hash id, String value) {
+        if (value.length() > MAX_LENGTH) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            insert(id, value);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String value) {
+        if (value.length() > MAX_LENGTH) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Node node = root;
+            while (node != null) {
+                int d = distance(value, node.value);
+                if (d == 0) {
+                    if (node.id != null) {
+                        node.id = null;
+                        live--;
+                        dead++;
+                    }
+                    break;
+                }
+                node = node.children == null ? null : node.children.get(d);
+            }
+            if (dead > live && dead >= MIN_REBUILD_SIZE) {
+                rebuild();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            root = null;
+            live = 0;
+            dead = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stored values within {@code maxDistance} of {@code query}, nearest first; rows
+     * are looked up once the tree has been searched.
+     */
+    List<EditDistanceMatch> search(String query, int maxDistance,
+                                   Function<Sha256Hash, Optional<StringAnalysis>> rows) {
+        Map<Sha256Hash, Integer> hits = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            Deque<Node> pending = new ArrayDeque<>();
+            if (root != null) {
+                pending.push(root);
+            }
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                int d = distance(query, node.value);
+                if (d <= maxDistance && node.id != null) {
+                    hits.put(node.id, d);
+                }
+                if (node.children == null) {
+                    continue;
+                }
+                for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                    if (Math.abs(child.getKey() - d) <= maxDistance) {
+                        pending.push(child.getValue());
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<EditDistanceMatch> matches = new ArrayList<>(hits.size());
+        hits.forEach((id, d) -> rows.apply(id).ifPresent(a -> matches.add(new EditDistanceMatch(a, d))));
+        matches.sort(Comparator.comparingInt(EditDistanceMatch::distance)
+                .thenComparing(m -> m.analysis().getValue()));
+        return matches;
+    }
+
+    private void rebuild() {
+        List<Node> survivors = new ArrayList<>(live);
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            if (node.id != null) {
+                survivors.add(node);
+            }
+            if (node.children != null) {
+                node.children.values().forEach(pending::push);
+            }
+        }
+        root = null;
+        live = 0;
+        dead = 0;
+        for (Node node : survivors) {
+            insert(node.id, node.value);
+        }
+    }
+
+    private void insert(Sha256Hash id, String value) {
+        if (root == null) {
+            root = new Node(value, id);
+            live++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int d = distance(value, node.value);
+            if (d == 0) {
+                if (node.id == null) {
+                    node.id = id;
+                    live++;
+                    dead--;
+                }
+                return;
+            }
+            Node child = node.children().get(d);
+            if (child == null) {
+                node.children().put(d, new Node(value, id));
+                live++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /** Levenshtein distance over UTF-16 chars, keeping two rows of the table. */
+    static int distance(String a, String b) {
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Node {
+
+        private final String value;
+        // null once the row is removed
+        private Sha256Hash id;
+        private Map<Integer, Node> children;
+
+        Node(String value, Sha256Hash id) {
+            this.value = value;
+            this.id = id;
+        }
+
+        Map<Integer, Node> children() {
+            if (children == null) {
+                children = new HashMap<>(4);
+            }
+            return children;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.rifushigi.stringly.repository;
+
+import com.rifushigi.stringly.entity.CharacterFrequencies;
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+import java.util.Locale;
+
+final class CaseFolding {
+
+    private static final char CAPITAL_SIGMA = '\u03a3';
+
+    private CaseFolding() {
+    }
+
+    /**
+     * Distinct chars of the entry once lower-cased, taken from the frequency map so the
+     * work is per distinct character rather than per character of the value. Folding
+     * can expand a character (e.g. U+0130), so every char of the folded form is kept.
+     * <p>
+     * {@code toLowerCase} looks at neighbouring characters for capital sigma (final
+     * form) and in Lithuanian, Turkish and Azeri locales; those values are folded whole
+     * so the postings agree with {@code value.toLowerCase()}.
+     */
+    static int[] foldedCharacters(StringAnalysis analysis) {
+        CharacterFrequencies frequencies = analysis.getCharacterFrequencyMap();
+        if (frequencies == null || contextual(frequencies)) {
+            return analysis.getValue().toLowerCase().chars().distinct().toArray();
+        }
+        StringBuilder folded = new StringBuilder(frequencies.distinctCharacters());
+        for (int i = 0; i < frequencies.distinctCharacters(); i++) {
+            folded.append(String.valueOf(frequencies.characterAt(i)).toLowerCase());
+        }
+        return folded.chars().distinct().toArray();
+    }
+
+    private static boolean contextual(CharacterFrequencies frequencies) {
+        if (frequencies.count(CAPITAL_SIGMA) > 0) {
+            return true;
+        }
+        String language = Locale.getDefault().getLanguage();
+        return "lt".equals(language) || "tr".equals(language) || "az".equals(language);
+    }
+}
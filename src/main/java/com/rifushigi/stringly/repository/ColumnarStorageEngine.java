@@ -0,0 +1,632 @@
+package com.rifushigi.stringly.repository;
+
+import com.rifushigi.stringly.entity.CharacterFrequencies;
+import com.rifushigi.stringly.entity.Sha256Hash;
+import com.rifushigi.stringly.entity.StringAnalysis;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the filterable attributes in parallel primitive columns indexed by a dense row
+ * id. Filters run as one linear pass per column over a selection bitmap, and only the
+ * rows left selected are turned back into {@link StringAnalysis} objects.
+ */
+@Component
+@ConditionalOnProperty(name = "stringly.storage.engine", havingValue = "columnar")
+class ColumnarStorageEngine implements StorageEngine {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Sha256Hash, Integer> rowsById = new HashMap<>();
+    private final FilterStatistics statistics = new FilterStatistics();
+    // Ids by AnagramSignature of their characters; ids rather than rows since compact() moves rows
+    private final Map<String, Set<Sha256Hash>> anagrams = new HashMap<>();
+    private final BkTree editDistanceIndex = new BkTree();
+    private final MinHashIndex minHashIndex = new MinHashIndex();
+
+    // Rows are appended; deleting a row clears its live bit and the space is reclaimed
+    // by compact() once more than half of the rows are dead.
+    private int rowCount;
+    private long lastSequence;
+    private final BitSet live = new BitSet();
+    private final BitSet palindromes = new BitSet();
+    // Insertion sequence per row; ascending, since compaction keeps the row order
+    private long[] sequences;
+    private int[] lengths;
+    private int[] wordCounts;
+    private int[] uniqueCharacters;
+    // Folded ASCII characters present in the row: bits 0-63 and 64-127
+    private long[] asciiLow;
+    private long[] asciiHigh;
+    private Sha256Hash[] ids;
+    private String[] values;
+    private CharacterFrequencies[] frequencies;
+    private LocalDateTime[] createdAt;
+
+    ColumnarStorageEngine() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public StringAnalysis save(StringAnalysis analysis) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = rowsById.remove(analysis.getId());
+            if (previous != null) {
+                forget(previous);
+                clearRow(previous);
+            }
+            append(analysis);
+            compactIfSparse();
+            return analysis;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<StringAnalysis> findById(Sha256Hash id) {
+        lock.readLock().lock();
+        try {
+            Integer row = rowsById.get(id);
+            return row == null ? Optional.empty() : Optional.of(materialize(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<StringAnalysis> findAll() {
+        lock.readLock().lock();
+        try {
+            List<StringAnalysis> result = new ArrayList<>(rowsById.size());
+            for (int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)) {
+                result.add(materialize(row));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(Sha256Hash id) {
+        lock.readLock().lock();
+        try {
+            return rowsById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteById(Sha256Hash id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsById.remove(id);
+            if (row == null) {
+                return;
+            }
+            forget(row);
+            clearRow(row);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<StringAnalysis> findWithFilters(FilterCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            Needle needle = Needle.of(criteria);
+            long[] selection = select(criteria, needle);
+            List<StringAnalysis> result = new ArrayList<>();
+            for (int w = 0; w < selection.length; w++) {
+                long word = selection[w];
+                while (word != 0) {
+                    int row = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (needle.verified(values[row])) {
+                        result.add(materialize(row));
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page findPage(FilterCriteria criteria, long afterSequence, int limit) {
+        lock.readLock().lock();
+        try {
+            Needle needle = Needle.of(criteria);
+            int start = Arrays.binarySearch(sequences, 0, rowCount, afterSequence);
+            start = start >= 0 ? start + 1 : -start - 1;
+
+            List<Pass> passes = passes(criteria, needle);
+            List<StringAnalysis> items = new ArrayList<>(Math.min(limit, 256));
+            long last = afterSequence;
+            for (int row = live.nextSetBit(start); row >= 0; row = live.nextSetBit(row + 1)) {
+                if (!matches(row, criteria, needle, passes) || !needle.verified(values[row])) {
+                    continue;
+                }
+                if (items.size() == limit) {
+                    return new Page(items, last);
+                }
+                items.add(materialize(row));
+                last = sequences[row];
+            }
+            return new Page(items, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count(FilterCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            Needle needle = Needle.of(criteria);
+            long[] selection = select(criteria, needle);
+            long count = 0;
+            for (int w = 0; w < selection.length; w++) {
+                long word = selection[w];
+                if (!needle.needsVerification()) {
+                    count += Long.bitCount(word);
+                    continue;
+                }
+                while (word != 0) {
+                    int row = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (needle.verified(values[row])) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public QueryPlan explain(FilterCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            List<QueryPlanner.Predicate> predicates = QueryPlanner.plan(criteria, statistics);
+            List<QueryPlan.Step> steps = new ArrayList<>();
+            // The palindrome bitmap is always applied first; the column passes follow in plan order
+            for (QueryPlanner.Predicate predicate : predicates) {
+                if (predicate.kind() == QueryPlanner.Kind.PALINDROME) {
+                    steps.add(new QueryPlan.Step("bitmap", predicate.description(), predicate.estimatedRows()));
+                }
+            }
+            for (QueryPlanner.Predicate predicate : predicates) {
+                String access = switch (predicate.kind()) {
+                    case PALINDROME -> null;
+                    case LENGTH, WORD_COUNT -> "column";
+                    case CHARACTER -> predicate.character() < 128 ? "mask" : "check";
+                    case CONTAINS, PREFIX, SUFFIX, SUBSTRING -> "check";
+                };
+                if (access != null) {
+                    steps.add(new QueryPlan.Step(access, predicate.description(), predicate.estimatedRows()));
+                }
+            }
+            long rows = statistics.rows();
+            if (steps.isEmpty()) {
+                steps.add(new QueryPlan.Step("scan", "all rows", rows));
+            }
+            return new QueryPlan("columnar", steps, rows, QueryPlanner.estimateRows(predicates, rows));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<StringAnalysis> findAnagrams(CharacterFrequencies frequencies) {
+        lock.readLock().lock();
+        try {
+            Set<Sha256Hash> ids = anagrams.getOrDefault(AnagramSignature.of(frequencies), Set.of());
+            int[] rows = ids.stream().mapToInt(rowsById::get).sorted().toArray();
+            List<StringAnalysis> result = new ArrayList<>(rows.length);
+            for (int row : rows) {
+                result.add(materialize(row));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scans the live rows, skipping on the mask columns and the length any row that
+     * cannot hold the input before its counts are compared. With no per-character index
+     * this is O(n) in the rows stored, whatever the size of the result.
+     */
+    @Override
+    public List<StringAnalysis> findContainingAll(CharacterFrequencies frequencies) {
+        lock.readLock().lock();
+        try {
+            long low = 0L;
+            long high = 0L;
+            for (int i = 0; i < frequencies.distinctCharacters(); i++) {
+                String folded = String.valueOf(frequencies.characterAt(i)).toLowerCase();
+                for (int j = 0; j < folded.length(); j++) {
+                    char c = folded.charAt(j);
+                    if (c < 64) {
+                        low |= 1L << c;
+                    } else if (c < 128) {
+                        high |= 1L << c;
+                    }
+                }
+            }
+            long total = AnagramSignature.total(frequencies);
+            List<StringAnalysis> result = new ArrayList<>();
+            for (int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)) {
+                if ((asciiLow[row] & low) != low || (asciiHigh[row] & high) != high || lengths[row] < total) {
+                    continue;
+                }
+                StringAnalysis analysis = materialize(row);
+                if (AnagramSignature.covers(AnagramSignature.frequencies(analysis), frequencies)) {
+                    result.add(analysis);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<EditDistanceMatch> findWithinDistance(String value, int maxDistance) {
+        return editDistanceIndex.search(value, maxDistance, this::findById);
+    }
+
+    @Override
+    public List<JaccardMatch> findSimilar(String value, double minSimilarity) {
+        return minHashIndex.search(value, minSimilarity, this::findById);
+    }
+
+    @Override
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return rowsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Integer> indexSizes() {
+        lock.readLock().lock();
+        try {
+            return Map.of(
+                    "anagram", anagrams.size(),
+                    "edit_distance", editDistanceIndex.size(),
+                    "minhash", minHashIndex.size()
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int indexSize(String index) {
+        lock.readLock().lock();
+        try {
+            return switch (index) {
+                case "anagram" -> anagrams.size();
+                case "edit_distance" -> editDistanceIndex.size();
+                case "minhash" -> minHashIndex.size();
+                default -> 0;
+            };
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        lock.writeLock().lock();
+        try {
+            rowsById.clear();
+            statistics.clear();
+            anagrams.clear();
+            editDistanceIndex.clear();
+            minHashIndex.clear();
+            live.clear();
+            palindromes.clear();
+            rowCount = 0;
+            allocate(INITIAL_CAPACITY);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Narrows the live rows down to the matches, one column pass per predicate. The
+     * palindrome bitmap is applied first since it costs one AND per 64 rows; the other
+     * passes follow {@link QueryPlanner}'s order and only visit rows still selected, so
+     * the most selective column is the only one read for every row.
+     */
+    private long[] select(FilterCriteria criteria, Needle needle) {
+        long[] selection = live.toLongArray();
+
+        if (criteria.isPalindrome() != null) {
+            long[] column = palindromes.toLongArray();
+            boolean wanted = criteria.isPalindrome();
+            for (int w = 0; w < selection.length; w++) {
+                long bits = w < column.length ? column[w] : 0L;
+                selection[w] &= wanted ? bits : ~bits;
+            }
+        }
+        for (Pass pass : passes(criteria, needle)) {
+            for (int w = 0; w < selection.length; w++) {
+                long word = selection[w];
+                while (word != 0) {
+                    int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (!keeps(pass, i, criteria, needle)) {
+                        selection[w] &= ~(1L << i);
+                    }
+                }
+            }
+        }
+        return selection;
+    }
+
+    // Row-at-a-time form of select(), for pages that stop after a few matches
+    private boolean matches(int row, FilterCriteria criteria, Needle needle, List<Pass> passes) {
+        if (criteria.isPalindrome() != null && palindromes.get(row) != criteria.isPalindrome()) {
+            return false;
+        }
+        for (Pass pass : passes) {
+            if (!keeps(pass, row, criteria, needle)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The column passes after the palindrome bitmap, in plan order. All ASCII characters
+     * of the text filters are tested together against the mask columns, at the position of
+     * the most selective one; anything else is left to {@link Needle#verified}.
+     */
+    private List<Pass> passes(FilterCriteria criteria, Needle needle) {
+        List<Pass> passes = new ArrayList<>(4);
+        for (QueryPlanner.Predicate predicate : QueryPlanner.plan(criteria, statistics)) {
+            Pass pass = switch (predicate.kind()) {
+                case LENGTH -> Pass.LENGTH;
+                case WORD_COUNT -> Pass.WORD_COUNT;
+                case CHARACTER, CONTAINS, PREFIX, SUFFIX -> (needle.low | needle.high) != 0L ? Pass.CHARACTERS : null;
+                case PALINDROME, SUBSTRING -> null;
+            };
+            if (pass != null && !passes.contains(pass)) {
+                passes.add(pass);
+            }
+        }
+        return passes;
+    }
+
+    private enum Pass { LENGTH, WORD_COUNT, CHARACTERS }
+
+    private boolean keeps(Pass pass, int row, FilterCriteria criteria, Needle needle) {
+        return switch (pass) {
+            case LENGTH -> (criteria.minLength() == null || lengths[row] >= criteria.minLength())
+                    && (criteria.maxLength() == null || lengths[row] <= criteria.maxLength());
+            case WORD_COUNT -> wordCounts[row] == criteria.wordCount();
+            case CHARACTERS -> (asciiLow[row] & needle.low) == needle.low
+                    && (asciiHigh[row] & needle.high) == needle.high;
+        };
+    }
+
+    private void append(StringAnalysis analysis) {
+        if (rowCount == ids.length) {
+            grow(ids.length << 1);
+        }
+        int row = rowCount++;
+        sequences[row] = ++lastSequence;
+        ids[row] = analysis.getId();
+        values[row] = analysis.getValue();
+        frequencies[row] = analysis.getCharacterFrequencyMap();
+        createdAt[row] = analysis.getCreatedAt();
+        lengths[row] = analysis.getLength();
+        wordCounts[row] = analysis.getWordCount();
+        uniqueCharacters[row] = analysis.getUniqueCharacters();
+        long low = 0L;
+        long high = 0L;
+        int[] folded = CaseFolding.foldedCharacters(analysis);
+        statistics.add(analysis, folded);
+        for (int c : folded) {
+            if (c < 64) {
+                low |= 1L << c;
+            } else if (c < 128) {
+                high |= 1L << c;
+            }
+        }
+        asciiLow[row] = low;
+        asciiHigh[row] = high;
+        palindromes.set(row, Boolean.TRUE.equals(analysis.getIsPalindrome()));
+        live.set(row);
+        rowsById.put(analysis.getId(), row);
+        anagrams.computeIfAbsent(AnagramSignature.of(AnagramSignature.frequencies(analysis)), k -> new HashSet<>())
+                .add(analysis.getId());
+        editDistanceIndex.add(analysis.getId(), analysis.getValue());
+        minHashIndex.add(analysis.getId(), analysis.getValue());
+    }
+
+    private void forget(int row) {
+        StringAnalysis analysis = materialize(row);
+        statistics.remove(analysis, CaseFolding.foldedCharacters(analysis));
+        String signature = AnagramSignature.of(AnagramSignature.frequencies(analysis));
+        Set<Sha256Hash> ids = anagrams.get(signature);
+        if (ids != null) {
+            ids.remove(analysis.getId());
+            if (ids.isEmpty()) {
+                anagrams.remove(signature);
+            }
+        }
+        editDistanceIndex.remove(analysis.getValue());
+        minHashIndex.remove(analysis.getId(), analysis.getValue());
+    }
+
+    private void clearRow(int row) {
+        live.clear(row);
+        palindromes.clear(row);
+        ids[row] = null;
+        values[row] = null;
+        frequencies[row] = null;
+        createdAt[row] = null;
+    }
+
+    private StringAnalysis materialize(int row) {
+        return new StringAnalysis(ids[row], values[row], lengths[row], palindromes.get(row),
+                uniqueCharacters[row], wordCounts[row], frequencies[row], createdAt[row]);
+    }
+
+    // Slides live rows down over the dead ones, keeping their relative order.
+    // Replacing saves leave dead rows too, so both writers check
+    private void compactIfSparse() {
+        if (rowCount >= INITIAL_CAPACITY && rowCount - rowsById.size() > rowCount / 2) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        int target = 0;
+        for (int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)) {
+            if (row != target) {
+                sequences[target] = sequences[row];
+                ids[target] = ids[row];
+                values[target] = values[row];
+                frequencies[target] = frequencies[row];
+                createdAt[target] = createdAt[row];
+                lengths[target] = lengths[row];
+                wordCounts[target] = wordCounts[row];
+                uniqueCharacters[target] = uniqueCharacters[row];
+                asciiLow[target] = asciiLow[row];
+                asciiHigh[target] = asciiHigh[row];
+                palindromes.set(target, palindromes.get(row));
+                rowsById.put(ids[target], target);
+            }
+            target++;
+        }
+        for (int row = target; row < rowCount; row++) {
+            clearRow(row);
+        }
+        live.clear();
+        live.set(0, target);
+        rowCount = target;
+    }
+
+    private void allocate(int capacity) {
+        sequences = new long[capacity];
+        lengths = new int[capacity];
+        wordCounts = new int[capacity];
+        uniqueCharacters = new int[capacity];
+        asciiLow = new long[capacity];
+        asciiHigh = new long[capacity];
+        ids = new Sha256Hash[capacity];
+        values = new String[capacity];
+        frequencies = new CharacterFrequencies[capacity];
+        createdAt = new LocalDateTime[capacity];
+    }
+
+    private void grow(int capacity) {
+        sequences = Arrays.copyOf(sequences, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        wordCounts = Arrays.copyOf(wordCounts, capacity);
+        uniqueCharacters = Arrays.copyOf(uniqueCharacters, capacity);
+        asciiLow = Arrays.copyOf(asciiLow, capacity);
+        asciiHigh = Arrays.copyOf(asciiHigh, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        values = Arrays.copyOf(values, capacity);
+        frequencies = Arrays.copyOf(frequencies, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+    }
+
+    /**
+     * The text filters split into the folded ASCII characters the mask columns can answer
+     * and, when those are not the whole filter, a check of the value. Without a trigram
+     * index, contains, starts_with and ends_with are answered by that check; the mask
+     * only narrows down the rows it reads.
+     */
+    private static final class Needle {
+
+        private static final Needle NONE = new Needle(null, null, null, null, 0L, 0L);
+
+        private final String verify;
+        private final String contains;
+        private final String prefix;
+        private final String suffix;
+        private final long low;
+        private final long high;
+
+        private Needle(String verify, String contains, String prefix, String suffix, long low, long high) {
+            this.verify = verify;
+            this.contains = contains;
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.low = low;
+            this.high = high;
+        }
+
+        static Needle of(FilterCriteria criteria) {
+            String folded = QueryPlanner.fold(criteria.containsCharacter());
+            String contains = QueryPlanner.fold(criteria.contains());
+            String prefix = QueryPlanner.fold(criteria.startsWith());
+            String suffix = QueryPlanner.fold(criteria.endsWith());
+            if (folded == null && contains == null && prefix == null && suffix == null) {
+                return NONE;
+            }
+            long low = 0L;
+            long high = 0L;
+            for (String text : new String[] {folded, contains, prefix, suffix}) {
+                for (int i = 0; text != null && i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    if (c < 64) {
+                        low |= 1L << c;
+                    } else if (c < 128) {
+                        high |= 1L << c;
+                    }
+                }
+            }
+            boolean exact = folded != null && folded.length() == 1 && folded.charAt(0) < 128;
+            return new Needle(exact ? null : folded, contains, prefix, suffix, low, high);
+        }
+
+        boolean needsVerification() {
+            return verify != null || contains != null || prefix != null || suffix != null;
+        }
+
+        boolean verified(String value) {
+            if (!needsVerification()) {
+                return true;
+            }
+            String folded = value.toLowerCase();
+            return (verify == null || folded.contains(verify))
+                    && (contains == null || folded.contains(contains))
+                    && (prefix == null || folded.startsWith(prefix))
+                    && (suffix == null || folded.endsWith(suffix));
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.rifushigi.stringly.repository;
+
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+/**
+ * A stored string {@code distance} single-character insertions, deletions or
+ * substitutions away from the query.
+ */
+public record EditDistanceMatch(StringAnalysis analysis, int distance) {
+}
@@ -0,0 +1,37 @@
+package com.rifushigi.stringly.repository;
+
+/**
+ * The filters of a query. {@code containsCharacter}, {@code contains},
+ * {@code startsWith} and {@code endsWith} all match case-insensitively.
+ */
+public record FilterCriteria(
+        Boolean isPalindrome,
+        Integer minLength,
+        Integer maxLength,
+        Integer wordCount,
+        String containsCharacter,
+        String contains,
+        String startsWith,
+        String endsWith
+) {
+    public FilterCriteria(Boolean isPalindrome, Integer minLength, Integer maxLength, Integer wordCount,
+                          String containsCharacter) {
+        this(isPalindrome, minLength, maxLength, wordCount, containsCharacter, null, null, null);
+    }
+
+    /**
+     * The same filters with the case-insensitive ones lower-cased as the engines fold
+     * them, so queries that can only return the same rows compare equal.
+     */
+    public FilterCriteria folded() {
+        return new FilterCriteria(isPalindrome, minLength, maxLength, wordCount,
+                QueryPlanner.fold(containsCharacter), QueryPlanner.fold(contains),
+                QueryPlanner.fold(startsWith), QueryPlanner.fold(endsWith));
+    }
+
+    public boolean isEmpty() {
+        return isPalindrome == null && minLength == null && maxLength == null
+                && wordCount == null && containsCharacter == null
+                && contains == null && startsWith == null && endsWith == null;
+    }
+}
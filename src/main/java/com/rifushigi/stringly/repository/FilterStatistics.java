@@ -0,0 +1,90 @@
+package com.rifushigi.stringly.repository;
+
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Row counts per value of every filterable attribute, kept in step with writes by the
+ * engine: a length histogram, word-count counts, the number of palindromes and, per
+ * folded character, the number of rows containing it. {@link QueryPlanner} reads them to
+ * estimate how many rows each filter keeps.
+ * <p>
+ * Counters are updated without a lock, so under concurrent writes an estimate can be
+ * briefly off by the writes in flight.
+ */
+final class FilterStatistics {
+
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder palindromes = new LongAdder();
+    private final NavigableMap<Integer, LongAdder> lengths = new ConcurrentSkipListMap<>();
+    private final Map<Integer, LongAdder> wordCounts = new ConcurrentHashMap<>();
+    private final Map<Character, LongAdder> characters = new ConcurrentHashMap<>();
+
+    /**
+     * @param folded the row's distinct folded characters, see {@link CaseFolding}
+     */
+    void add(StringAnalysis analysis, int[] folded) {
+        update(analysis, folded, 1);
+    }
+
+    void remove(StringAnalysis analysis, int[] folded) {
+        update(analysis, folded, -1);
+    }
+
+    void clear() {
+        rows.reset();
+        palindromes.reset();
+        lengths.clear();
+        wordCounts.clear();
+        characters.clear();
+    }
+
+    long rows() {
+        return Math.max(0, rows.sum());
+    }
+
+    long palindromes(boolean palindrome) {
+        long count = Math.max(0, palindromes.sum());
+        return palindrome ? count : Math.max(0, rows() - count);
+    }
+
+    long lengthBetween(Integer minLength, Integer maxLength) {
+        int min = minLength == null ? Integer.MIN_VALUE : minLength;
+        int max = maxLength == null ? Integer.MAX_VALUE : maxLength;
+        if (min > max) {
+            return 0;
+        }
+        long count = 0;
+        for (LongAdder bucket : lengths.subMap(min, true, max, true).values()) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    long wordCount(int wordCount) {
+        LongAdder count = wordCounts.get(wordCount);
+        return count == null ? 0 : count.sum();
+    }
+
+    long containing(char folded) {
+        LongAdder count = characters.get(folded);
+        return count == null ? 0 : count.sum();
+    }
+
+    private void update(StringAnalysis analysis, int[] folded, int delta) {
+        rows.add(delta);
+        if (Boolean.TRUE.equals(analysis.getIsPalindrome())) {
+            palindromes.add(delta);
+        }
+        lengths.computeIfAbsent(analysis.getLength(), k -> new LongAdder()).add(delta);
+        wordCounts.computeIfAbsent(analysis.getWordCount(), k -> new LongAdder()).add(delta);
+        for (int c : folded) {
+            characters.computeIfAbsent((char) c, k -> new LongAdder()).add(delta);
+        }
+    }
+}
@@ -0,0 +1,514 @@
+package com.rifushigi.stringly.repository;
+
+import com.rifushigi.stringly.entity.CharacterFrequencies;
+import com.rifushigi.stringly.entity.Sha256Hash;
+import com.rifushigi.stringly.entity.StringAnalysis;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@ConditionalOnProperty(name = "stringly.storage.engine", havingValue = "indexed", matchIfMissing = true)
+class IndexedStorageEngine implements StorageEngine {
+
+    private static final Posting EMPTY = new Posting();
+
+    private final Map<Sha256Hash, Row> rowsById = new ConcurrentHashMap<>();
+    // Every row gets a sequence number on insert; it orders results and backs cursors
+    private final ConcurrentSkipListMap<Long, StringAnalysis> rowsBySequence = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Secondary indexes, kept in step with storage inside rowsById.compute so that
+    // writes to the same id never interleave. Buckets are left in place once empty.
+    private final Posting palindromes = new Posting();
+    private final Posting nonPalindromes = new Posting();
+    private final NavigableMap<Integer, Posting> lengthIndex = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Posting> wordCountIndex = new ConcurrentHashMap<>();
+    private final Map<Character, Posting> characterIndex = new ConcurrentHashMap<>();
+    // Rows by each trigram of their folded value, see Trigrams
+    private final Map<Long, Posting> trigramIndex = new ConcurrentHashMap<>();
+    // Rows by AnagramSignature of their characters
+    private final Map<String, Posting> anagramIndex = new ConcurrentHashMap<>();
+    private final BkTree editDistanceIndex = new BkTree();
+    private final MinHashIndex minHashIndex = new MinHashIndex();
+    private final FilterStatistics statistics = new FilterStatistics();
+
+    @Override
+    public StringAnalysis save(StringAnalysis analysis) {
+        rowsById.compute(analysis.getId(), (id, previous) -> {
+            if (previous != null) {
+                unindex(previous);
+            }
+            Row row = new Row(sequence.incrementAndGet(), analysis);
+            index(row);
+            return row;
+        });
+        return analysis;
+    }
+
+    @Override
+    public Optional<StringAnalysis> findById(Sha256Hash id) {
+        return Optional.ofNullable(rowsById.get(id)).map(Row::analysis);
+    }
+
+    @Override
+    public List<StringAnalysis> findAll() {
+        return new ArrayList<>(rowsBySequence.values());
+    }
+
+    @Override
+    public boolean existsById(Sha256Hash id) {
+        return rowsById.containsKey(id);
+    }
+
+    @Override
+    public void deleteById(Sha256Hash id) {
+        rowsById.computeIfPresent(id, (key, previous) -> {
+            unindex(previous);
+            return null;
+        });
+    }
+
+    @Override
+    public List<StringAnalysis> findWithFilters(FilterCriteria criteria) {
+        return findPage(criteria, 0L, Integer.MAX_VALUE).items();
+    }
+
+    @Override
+    public Page findPage(FilterCriteria criteria, long afterSequence, int limit) {
+        Query query = new Query(criteria);
+        List<StringAnalysis> items = new ArrayList<>(Math.min(limit, 256));
+        Iterator<Long> candidates = query.driver.after(afterSequence);
+        long last = afterSequence;
+        while (candidates.hasNext()) {
+            long candidate = candidates.next();
+            StringAnalysis analysis = rowsBySequence.get(candidate);
+            if (analysis == null || !query.matches(candidate, analysis)) {
+                continue;
+            }
+            if (items.size() == limit) {
+                return new Page(items, last);
+            }
+            items.add(analysis);
+            last = candidate;
+        }
+        return new Page(items, null);
+    }
+
+    @Override
+    public long count(FilterCriteria criteria) {
+        Query query = new Query(criteria);
+        if (query.answeredByDriver()) {
+            return query.driver.size();
+        }
+        long count = 0;
+        Iterator<Long> candidates = query.driver.after(0L);
+        while (candidates.hasNext()) {
+            long candidate = candidates.next();
+            StringAnalysis analysis = rowsBySequence.get(candidate);
+            if (analysis != null && query.matches(candidate, analysis)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public QueryPlan explain(FilterCriteria criteria) {
+        return new Query(criteria).plan();
+    }
+
+    @Override
+    public List<StringAnalysis> findAnagrams(CharacterFrequencies frequencies) {
+        Posting posting = anagramIndex.getOrDefault(AnagramSignature.of(frequencies), EMPTY);
+        List<StringAnalysis> result = new ArrayList<>(posting.size());
+        Iterator<Long> sequences = posting.after(0L);
+        while (sequences.hasNext()) {
+            StringAnalysis analysis = rowsBySequence.get(sequences.next());
+            if (analysis != null) {
+                result.add(analysis);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Walks the character posting of the input's rarest character, skips rows too short
+     * to hold the input and checks the counts of the rest.
+     */
+    @Override
+    public List<StringAnalysis> findContainingAll(CharacterFrequencies frequencies) {
+        if (frequencies.distinctCharacters() == 0) {
+            return findAll();
+        }
+        Driver rarest = null;
+        for (int i = 0; i < frequencies.distinctCharacters(); i++) {
+            String folded = String.valueOf(frequencies.characterAt(i)).toLowerCase();
+            for (int j = 0; j < folded.length(); j++) {
+                Driver candidate = posting(characterIndex.getOrDefault(folded.charAt(j), EMPTY));
+                if (rarest == null || candidate.size() < rarest.size()) {
+                    rarest = candidate;
+                }
+            }
+        }
+        long total = AnagramSignature.total(frequencies);
+        List<StringAnalysis> result = new ArrayList<>();
+        Iterator<Long> candidates = rarest.after(0L);
+        while (candidates.hasNext()) {
+            StringAnalysis analysis = rowsBySequence.get(candidates.next());
+            if (analysis != null && analysis.getLength() >= total
+                    && AnagramSignature.covers(AnagramSignature.frequencies(analysis), frequencies)) {
+                result.add(analysis);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<EditDistanceMatch> findWithinDistance(String value, int maxDistance) {
+        return editDistanceIndex.search(value, maxDistance, this::findById);
+    }
+
+    @Override
+    public List<JaccardMatch> findSimilar(String value, double minSimilarity) {
+        return minHashIndex.search(value, minSimilarity, this::findById);
+    }
+
+    @Override
+    public long size() {
+        return rowsById.size();
+    }
+
+    @Override
+    public Map<String, Integer> indexSizes() {
+        return Map.of(
+                "length", lengthIndex.size(),
+                "word_count", wordCountIndex.size(),
+                "character", characterIndex.size(),
+                "trigram", trigramIndex.size(),
+                "anagram", anagramIndex.size(),
+                "edit_distance", editDistanceIndex.size(),
+                "minhash", minHashIndex.size()
+        );
+    }
+
+    @Override
+    public int indexSize(String index) {
+        return switch (index) {
+            case "length" -> lengthIndex.size();
+            case "word_count" -> wordCountIndex.size();
+            case "character" -> characterIndex.size();
+            case "trigram" -> trigramIndex.size();
+            case "anagram" -> anagramIndex.size();
+            case "edit_distance" -> editDistanceIndex.size();
+            case "minhash" -> minHashIndex.size();
+            default -> 0;
+        };
+    }
+
+    @Override
+    public void deleteAll() {
+        rowsById.clear();
+        rowsBySequence.clear();
+        palindromes.clear();
+        nonPalindromes.clear();
+        lengthIndex.clear();
+        wordCountIndex.clear();
+        characterIndex.clear();
+        trigramIndex.clear();
+        anagramIndex.clear();
+        editDistanceIndex.clear();
+        minHashIndex.clear();
+        statistics.clear();
+    }
+
+    private void index(Row row) {
+        long seq = row.sequence();
+        StringAnalysis analysis = row.analysis();
+        rowsBySequence.put(seq, analysis);
+        (Boolean.TRUE.equals(analysis.getIsPalindrome()) ? palindromes : nonPalindromes).add(seq);
+        lengthIndex.computeIfAbsent(analysis.getLength(), k -> new Posting()).add(seq);
+        wordCountIndex.computeIfAbsent(analysis.getWordCount(), k -> new Posting()).add(seq);
+        int[] folded = CaseFolding.foldedCharacters(analysis);
+        for (int c : folded) {
+            characterIndex.computeIfAbsent((char) c, k -> new Posting()).add(seq);
+        }
+        for (long trigram : Trigrams.ofValue(analysis.getValue())) {
+            trigramIndex.computeIfAbsent(trigram, k -> new Posting()).add(seq);
+        }
+        anagramIndex.computeIfAbsent(AnagramSignature.of(AnagramSignature.frequencies(analysis)), k -> new Posting())
+                .add(seq);
+        editDistanceIndex.add(analysis.getId(), analysis.getValue());
+        minHashIndex.add(analysis.getId(), analysis.getValue());
+        statistics.add(analysis, folded);
+    }
+
+    private void unindex(Row row) {
+        long seq = row.sequence();
+        StringAnalysis analysis = row.analysis();
+        rowsBySequence.remove(seq);
+        palindromes.remove(seq);
+        nonPalindromes.remove(seq);
+        Optional.ofNullable(lengthIndex.get(analysis.getLength())).ifPresent(p -> p.remove(seq));
+        Optional.ofNullable(wordCountIndex.get(analysis.getWordCount())).ifPresent(p -> p.remove(seq));
+        int[] folded = CaseFolding.foldedCharacters(analysis);
+        for (int c : folded) {
+            Optional.ofNullable(characterIndex.get((char) c)).ifPresent(p -> p.remove(seq));
+        }
+        for (long trigram : Trigrams.ofValue(analysis.getValue())) {
+            Optional.ofNullable(trigramIndex.get(trigram)).ifPresent(p -> p.remove(seq));
+        }
+        Optional.ofNullable(anagramIndex.get(AnagramSignature.of(AnagramSignature.frequencies(analysis))))
+                .ifPresent(p -> p.remove(seq));
+        editDistanceIndex.remove(analysis.getValue());
+        minHashIndex.remove(analysis.getId(), analysis.getValue());
+        statistics.remove(analysis, folded);
+    }
+
+    private record Row(long sequence, StringAnalysis analysis) {}
+
+    /** Sequence numbers in ascending order, with a size known without iterating. */
+    private interface Driver {
+        long size();
+
+        Iterator<Long> after(long sequence);
+    }
+
+    /**
+     * A filter compiled against the indexes, in the order {@link QueryPlanner} puts its
+     * predicates. The first one drives the scan through its posting list; the others are
+     * checked against each candidate row in turn. Rows deleted mid-query are dropped
+     * because they are gone from rowsBySequence.
+     * <p>
+     * A text predicate drives through its trigram with the fewest rows; the candidates
+     * then have to be in every other posting of the pattern and pass a check of the
+     * value itself, since having all of a pattern's trigrams does not mean containing it.
+     */
+    private final class Query {
+
+        private final List<QueryPlanner.Predicate> predicates;
+        private final List<RowCheck> checks = new ArrayList<>();
+        private final Driver driver;
+
+        Query(FilterCriteria criteria) {
+            this.predicates = QueryPlanner.plan(criteria, statistics);
+            Driver first = null;
+            for (QueryPlanner.Predicate predicate : predicates) {
+                if (first == null && predicate.kind() != QueryPlanner.Kind.SUBSTRING) {
+                    first = driver(predicate, criteria);
+                    if (predicate.kind().isText()) {
+                        checks.add(textCheck(predicate, true));
+                    }
+                    continue;
+                }
+                checks.add(check(predicate, criteria));
+            }
+            this.driver = first != null ? first : allRows();
+        }
+
+        boolean answeredByDriver() {
+            return checks.isEmpty();
+        }
+
+        boolean matches(long seq, StringAnalysis s) {
+            for (RowCheck check : checks) {
+                if (!check.test(seq, s)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        QueryPlan plan() {
+            List<QueryPlan.Step> steps = new ArrayList<>(predicates.size() + 1);
+            boolean driven = false;
+            for (QueryPlanner.Predicate predicate : predicates) {
+                String access;
+                if (!driven && predicate.kind() != QueryPlanner.Kind.SUBSTRING) {
+                    access = "index";
+                    driven = true;
+                } else if (predicate.kind() == QueryPlanner.Kind.CHARACTER || predicate.kind().isText()) {
+                    access = "index-probe";
+                } else {
+                    access = "check";
+                }
+                steps.add(new QueryPlan.Step(access, predicate.description(), predicate.estimatedRows()));
+            }
+            long rows = statistics.rows();
+            if (!driven) {
+                steps.add(0, new QueryPlan.Step("scan", "all rows", rows));
+            }
+            return new QueryPlan("indexed", steps, rows, QueryPlanner.estimateRows(predicates, rows));
+        }
+
+        private Driver driver(QueryPlanner.Predicate predicate, FilterCriteria criteria) {
+            return switch (predicate.kind()) {
+                case PALINDROME -> posting(criteria.isPalindrome() ? palindromes : nonPalindromes);
+                case LENGTH -> merged(lengthRange(criteria.minLength(), criteria.maxLength()).values());
+                case WORD_COUNT -> posting(wordCountIndex.getOrDefault(criteria.wordCount(), EMPTY));
+                case CHARACTER -> posting(characterIndex.getOrDefault(predicate.character(), EMPTY));
+                case CONTAINS, PREFIX, SUFFIX -> posting(trigramPostings(predicate).get(0));
+                case SUBSTRING -> throw new IllegalArgumentException("A substring check cannot drive a scan");
+            };
+        }
+
+        private RowCheck check(QueryPlanner.Predicate predicate, FilterCriteria criteria) {
+            return switch (predicate.kind()) {
+                case PALINDROME -> (seq, s) -> s.getIsPalindrome().equals(criteria.isPalindrome());
+                case LENGTH -> (seq, s) -> (criteria.minLength() == null || s.getLength() >= criteria.minLength())
+                        && (criteria.maxLength() == null || s.getLength() <= criteria.maxLength());
+                case WORD_COUNT -> (seq, s) -> s.getWordCount().equals(criteria.wordCount());
+                case CHARACTER -> {
+                    Posting posting = characterIndex.getOrDefault(predicate.character(), EMPTY);
+                    yield (seq, s) -> posting.contains(seq);
+                }
+                case CONTAINS, PREFIX, SUFFIX -> textCheck(predicate, false);
+                case SUBSTRING -> (seq, s) -> s.getValue().toLowerCase().contains(predicate.text());
+            };
+        }
+
+        /**
+         * Probes the pattern's trigram postings, rarest first, then checks the value. The
+         * driving posting is skipped when the predicate drives the scan.
+         */
+        private RowCheck textCheck(QueryPlanner.Predicate predicate, boolean driving) {
+            List<Posting> all = trigramPostings(predicate);
+            List<Posting> postings = driving ? all.subList(1, all.size()) : all;
+            String text = predicate.text();
+            return switch (predicate.kind()) {
+                case PREFIX -> (seq, s) -> inAll(postings, seq) && s.getValue().toLowerCase().startsWith(text);
+                case SUFFIX -> (seq, s) -> inAll(postings, seq) && s.getValue().toLowerCase().endsWith(text);
+                default -> (seq, s) -> inAll(postings, seq) && s.getValue().toLowerCase().contains(text);
+            };
+        }
+
+        // The postings of the pattern's trigrams, fewest rows first; a missing trigram is an empty posting
+        private List<Posting> trigramPostings(QueryPlanner.Predicate predicate) {
+            long[] trigrams = switch (predicate.kind()) {
+                case PREFIX -> Trigrams.ofPrefix(predicate.text());
+                case SUFFIX -> Trigrams.ofSuffix(predicate.text());
+                default -> Trigrams.ofSubstring(predicate.text());
+            };
+            List<Posting> postings = new ArrayList<>(trigrams.length);
+            for (long trigram : trigrams) {
+                postings.add(trigramIndex.getOrDefault(trigram, EMPTY));
+            }
+            postings.sort(Comparator.comparingInt(Posting::size));
+            return postings;
+        }
+    }
+
+    private interface RowCheck {
+        boolean test(long seq, StringAnalysis analysis);
+    }
+
+    private Driver allRows() {
+        return new Driver() {
+            @Override
+            public long size() {
+                return rowsById.size();
+            }
+
+            @Override
+            public Iterator<Long> after(long seq) {
+                return rowsBySequence.tailMap(seq, false).keySet().iterator();
+            }
+        };
+    }
+
+    private static Driver posting(Posting posting) {
+        return new Driver() {
+            @Override
+            public long size() {
+                return posting.size();
+            }
+
+            @Override
+            public Iterator<Long> after(long seq) {
+                return posting.after(seq);
+            }
+        };
+    }
+
+    // Several buckets read as one ascending sequence, for length ranges
+    private static Driver merged(Collection<Posting> postings) {
+        return new Driver() {
+            @Override
+            public long size() {
+                return postings.stream().mapToLong(Posting::size).sum();
+            }
+
+            @Override
+            public Iterator<Long> after(long seq) {
+                return new MergingIterator(postings.stream().map(p -> p.after(seq)).toList());
+            }
+        };
+    }
+
+    private NavigableMap<Integer, Posting> lengthRange(Integer minLength, Integer maxLength) {
+        if (minLength != null && maxLength != null) {
+            if (minLength > maxLength) {
+                return new ConcurrentSkipListMap<>();
+            }
+            return lengthIndex.subMap(minLength, true, maxLength, true);
+        }
+        if (minLength != null) {
+            return lengthIndex.tailMap(minLength, true);
+        }
+        return lengthIndex.headMap(maxLength, true);
+    }
+
+    private static boolean inAll(List<Posting> postings, long seq) {
+        for (Posting posting : postings) {
+            if (!posting.contains(seq)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class MergingIterator implements Iterator<Long> {
+
+        private final PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparingLong(Head::value));
+
+        MergingIterator(List<Iterator<Long>> sources) {
+            for (Iterator<Long> source : sources) {
+                if (source.hasNext()) {
+                    heads.add(new Head(source.next(), source));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Long next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            if (head.source().hasNext()) {
+                heads.add(new Head(head.source().next(), head.source()));
+            }
+            return head.value();
+        }
+
+        private record Head(long value, Iterator<Long> source) {}
+    }
+}
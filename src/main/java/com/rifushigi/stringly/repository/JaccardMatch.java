@@ -0,0 +1,10 @@
+package com.rifushigi.stringly.repository;
+
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+/**
+ * A stored string whose set of character trigrams has Jaccard similarity
+ * {@code similarity} with the query's.
+ */
+public record JaccardMatch(StringAnalysis analysis, double similarity) {
+}
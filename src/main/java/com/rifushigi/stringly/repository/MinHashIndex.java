@@ -0,0 +1,151 @@
+package com.rifushigi.stringly.repository;
+
+import com.rifushigi.stringly.entity.Sha256Hash;
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Locality-sensitive hashing of the values' trigram sets (see {@link Trigrams}) for
+ * Jaccard similarity search.
+ * <p>
+ * Each value gets a MinHash signature of {@code BANDS * ROWS} minimums, one per hash
+ * function; two values agree on any one of them with probability equal to their
+ * Jaccard similarity. The signature is cut into bands and the value is filed under one
+ * bucket per band, so values sharing a whole band become candidates. With 42 bands of
+ * 3 rows a pair at similarity 0.5 shares a band 99.6% of the time and a pair at 0.3
+ * about 68% of the time; below that results thin out. Candidates are checked against
+ * their actual trigram sets, so a result is never below the threshold asked for.
+ * <p>
+ * Signatures are not kept: removal recomputes the value's buckets. Values longer than
+ * {@link #MAX_LENGTH} are left out, since hashing costs every trigram times every
+ * function.
+ */
+final class MinHashIndex {
+
+    static final int MAX_LENGTH = 10_000;
+
+    private static final int BANDS = 42;
+    private static final int ROWS = 3;
+    private static final long[] SEEDS = new long[BANDS * ROWS];
+
+    static {
+        long seed = 0x2545f4914f6cdd1dL;
+        for (int i = 0; i < SEEDS.length; i++) {
+            seed = mix(seed + i);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private final Map<Long, Set<Sha256Hash>> buckets = new ConcurrentHashMap<>();
+
+    void add(Sha256Hash id, String value) {
+        if (value.length() > MAX_LENGTH) {
+            return;
+        }
+        for (long bucket : buckets(Trigrams.ofValue(value))) {
+            buckets.computeIfAbsent(bucket, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    void remove(Sha256Hash id, String value) {
+        if (value.length() > MAX_LENGTH) {
+            return;
+        }
+        for (long bucket : buckets(Trigrams.ofValue(value))) {
+            buckets.computeIfPresent(bucket, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    void clear() {
+        buckets.clear();
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    /** Stored values at least {@code minSimilarity} similar to {@code query}, most similar first. */
+    List<JaccardMatch> search(String query, double minSimilarity,
+                              Function<Sha256Hash, Optional<StringAnalysis>> rows) {
+        long[] shingles = Trigrams.ofValue(query);
+        Set<Sha256Hash> candidates = new HashSet<>();
+        for (long bucket : buckets(shingles)) {
+            candidates.addAll(buckets.getOrDefault(bucket, Set.of()));
+        }
+        List<JaccardMatch> matches = new ArrayList<>();
+        for (Sha256Hash id : candidates) {
+            rows.apply(id).ifPresent(analysis -> {
+                double similarity = jaccard(shingles, Trigrams.ofValue(analysis.getValue()));
+                if (similarity >= minSimilarity) {
+                    matches.add(new JaccardMatch(analysis, similarity));
+                }
+            });
+        }
+        matches.sort(Comparator.comparingDouble(JaccardMatch::similarity).reversed()
+                .thenComparing(m -> m.analysis().getValue()));
+        return matches;
+    }
+
+    private static long[] buckets(long[] shingles) {
+        long[] signature = new long[SEEDS.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long shingle : shingles) {
+            long base = mix(shingle);
+            for (int i = 0; i < signature.length; i++) {
+                long h = mix(base ^ SEEDS[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        long[] buckets = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long h = band;
+            for (int row = 0; row < ROWS; row++) {
+                h = mix(h * 31 + signature[band * ROWS + row]);
+            }
+            buckets[band] = h;
+        }
+        return buckets;
+    }
+
+    // Both arrays are sorted and distinct, as Trigrams returns them
+    static double jaccard(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = a.length + b.length - common;
+        return union == 0 ? 1.0 : (double) common / union;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,12 @@
+package com.rifushigi.stringly.repository;
+
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+import java.util.List;
+
+/**
+ * One page of matches in insertion order. {@code nextSequence} is the position to resume
+ * after, or {@code null} when this is the last page.
+ */
+public record Page(List<StringAnalysis> items, Long nextSequence) {
+}
@@ -0,0 +1,44 @@
+package com.rifushigi.stringly.repository;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Row sequence numbers sharing one attribute value, in insertion order. The size is
+ * tracked separately because {@link ConcurrentSkipListSet#size()} walks the whole set.
+ */
+final class Posting {
+
+    private final ConcurrentSkipListSet<Long> sequences = new ConcurrentSkipListSet<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    void add(long sequence) {
+        if (sequences.add(sequence)) {
+            size.incrementAndGet();
+        }
+    }
+
+    void remove(long sequence) {
+        if (sequences.remove(sequence)) {
+            size.decrementAndGet();
+        }
+    }
+
+    boolean contains(long sequence) {
+        return sequences.contains(sequence);
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    void clear() {
+        sequences.clear();
+        size.set(0);
+    }
+
+    Iterator<Long> after(long sequence) {
+        return sequences.tailSet(sequence, false).iterator();
+    }
+}
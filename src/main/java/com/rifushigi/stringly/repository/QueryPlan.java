@@ -0,0 +1,18 @@
+package com.rifushigi.stringly.repository;
+
+import java.util.List;
+
+/**
+ * How an engine runs a filter, in execution order. {@code estimatedRows} of a step is
+ * what that predicate keeps on its own; the plan's is the estimate for all of them
+ * together.
+ */
+public record QueryPlan(String engine, List<Step> steps, long totalRows, long estimatedRows) {
+
+    /**
+     * @param access how the step is evaluated, e.g. {@code index} for the posting list
+     *               that drives the scan or {@code check} for a test on each candidate row
+     */
+    public record Step(String access, String predicate, long estimatedRows) {
+    }
+}
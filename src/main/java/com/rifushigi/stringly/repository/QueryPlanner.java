@@ -0,0 +1,130 @@
+package com.rifushigi.stringly.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Orders the predicates of a filter from the one expected to keep the fewest rows to the
+ * one keeping the most, using {@link FilterStatistics}. Engines drive their scan with the
+ * first predicate they can answer from an index and check the others in this order, so
+ * most rows are rejected by the first check they meet.
+ * <p>
+ * A multi-character {@code contains_character} becomes one predicate per distinct
+ * folded character plus a substring check. The substring check reads the value itself,
+ * so it always goes last. {@code contains} of three or more characters and any
+ * {@code starts_with} or {@code ends_with} become text predicates that engines can
+ * answer from a trigram index; a shorter {@code contains} is planned like a
+ * {@code contains_character}. Text predicates are estimated from their rarest
+ * character, which is an upper bound.
+ */
+final class QueryPlanner {
+
+    enum Kind {
+        PALINDROME, LENGTH, WORD_COUNT, CHARACTER, CONTAINS, PREFIX, SUFFIX, SUBSTRING;
+
+        boolean isText() {
+            return this == CONTAINS || this == PREFIX || this == SUFFIX;
+        }
+    }
+
+    /**
+     * @param text          the folded pattern of a text or substring predicate
+     * @param estimatedRows rows expected to pass this predicate on its own
+     */
+    record Predicate(Kind kind, char character, String text, String description, long estimatedRows) {
+    }
+
+    private QueryPlanner() {
+    }
+
+    static List<Predicate> plan(FilterCriteria criteria, FilterStatistics statistics) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.isPalindrome() != null) {
+            predicates.add(new Predicate(Kind.PALINDROME, '\0', null, "is_palindrome = " + criteria.isPalindrome(),
+                    statistics.palindromes(criteria.isPalindrome())));
+        }
+        if (criteria.minLength() != null || criteria.maxLength() != null) {
+            predicates.add(new Predicate(Kind.LENGTH, '\0', null, lengthDescription(criteria),
+                    statistics.lengthBetween(criteria.minLength(), criteria.maxLength())));
+        }
+        if (criteria.wordCount() != null) {
+            predicates.add(new Predicate(Kind.WORD_COUNT, '\0', null, "word_count = " + criteria.wordCount(),
+                    statistics.wordCount(criteria.wordCount())));
+        }
+        Set<Character> characters = new LinkedHashSet<>();
+        List<String> substrings = new ArrayList<>(2);
+        String needle = fold(criteria.containsCharacter());
+        if (needle != null) {
+            needle.chars().forEach(c -> characters.add((char) c));
+            if (needle.length() != 1) {
+                substrings.add(needle);
+            }
+        }
+        String contains = fold(criteria.contains());
+        if (contains != null && contains.length() >= 3) {
+            predicates.add(text(Kind.CONTAINS, contains, "contains \"" + contains + "\"", statistics));
+        } else if (contains != null) {
+            contains.chars().forEach(c -> characters.add((char) c));
+            if (contains.length() == 2) {
+                substrings.add(contains);
+            }
+        }
+        String prefix = fold(criteria.startsWith());
+        if (prefix != null && !prefix.isEmpty()) {
+            predicates.add(text(Kind.PREFIX, prefix, "starts with \"" + prefix + "\"", statistics));
+        }
+        String suffix = fold(criteria.endsWith());
+        if (suffix != null && !suffix.isEmpty()) {
+            predicates.add(text(Kind.SUFFIX, suffix, "ends with \"" + suffix + "\"", statistics));
+        }
+        for (char c : characters) {
+            predicates.add(new Predicate(Kind.CHARACTER, c, null, "contains '" + c + "'", statistics.containing(c)));
+        }
+        predicates.sort(Comparator.comparingLong(Predicate::estimatedRows));
+        for (String substring : substrings) {
+            predicates.add(new Predicate(Kind.SUBSTRING, '\0', substring, "contains \"" + substring + "\"",
+                    rarest(substring, statistics)));
+        }
+        return predicates;
+    }
+
+    /**
+     * Rows expected to pass every predicate, assuming the attributes are independent.
+     */
+    static long estimateRows(List<Predicate> predicates, long rows) {
+        if (rows == 0) {
+            return 0;
+        }
+        double estimate = rows;
+        for (Predicate predicate : predicates) {
+            estimate *= Math.min(1.0, (double) predicate.estimatedRows() / rows);
+        }
+        return Math.round(estimate);
+    }
+
+    static String fold(String pattern) {
+        return pattern == null ? null : pattern.toLowerCase();
+    }
+
+    private static Predicate text(Kind kind, String folded, String description, FilterStatistics statistics) {
+        return new Predicate(kind, '\0', folded, description, rarest(folded, statistics));
+    }
+
+    // Rows containing the least common character of the text; none can match beyond those
+    private static long rarest(String folded, FilterStatistics statistics) {
+        return folded.chars()
+                .mapToLong(c -> statistics.containing((char) c))
+                .min()
+                .orElse(statistics.rows());
+    }
+
+    private static String lengthDescription(FilterCriteria criteria) {
+        if (criteria.minLength() != null && criteria.maxLength() != null) {
+            return "length between " + criteria.minLength() + " and " + criteria.maxLength();
+        }
+        return criteria.minLength() != null ? "length >= " + criteria.minLength() : "length <= " + criteria.maxLength();
+    }
+}
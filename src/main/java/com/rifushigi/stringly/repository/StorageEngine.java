@@ -0,0 +1,122 @@
+package com.rifushigi.stringly.repository;
+
+import com.rifushigi.stringly.entity.CharacterFrequencies;
+import com.rifushigi.stringly.entity.Sha256Hash;
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * In-memory store behind {@link StringAnalysisRepository}. The implementation is
+ * picked with {@code stringly.storage.engine} ({@code indexed} or {@code columnar}).
+ */
+public interface StorageEngine {
+
+    /** A new, empty engine by its {@code stringly.storage.engine} name, for use outside Spring. */
+    static StorageEngine create(String name) {
+        return switch (name) {
+            case "indexed" -> new IndexedStorageEngine();
+            case "columnar" -> new ColumnarStorageEngine();
+            default -> throw new IllegalArgumentException("Unknown storage engine: " + name);
+        };
+    }
+
+    StringAnalysis save(StringAnalysis analysis);
+
+    Optional<StringAnalysis> findById(Sha256Hash id);
+
+    List<StringAnalysis> findAll();
+
+    boolean existsById(Sha256Hash id);
+
+    void deleteById(Sha256Hash id);
+
+    List<StringAnalysis> findWithFilters(FilterCriteria criteria);
+
+    /**
+     * Up to {@code limit} matches in insertion order, starting after the given sequence
+     * number (0 for the first page). Costs time in proportion to the page, not the store.
+     */
+    Page findPage(FilterCriteria criteria, long afterSequence, int limit);
+
+    /**
+     * Lazily walks every match in insertion order, fetching {@code batchSize} rows at a
+     * time, so a consumer that writes rows out as it goes holds one batch at most.
+     */
+    default Stream<StringAnalysis> stream(FilterCriteria criteria, int batchSize) {
+        Iterator<StringAnalysis> rows = new Iterator<>() {
+            private Iterator<StringAnalysis> batch = Collections.emptyIterator();
+            private Long next = 0L;
+
+            @Override
+            public boolean hasNext() {
+                while (!batch.hasNext() && next != null) {
+                    Page page = findPage(criteria, next, batchSize);
+                    batch = page.items().iterator();
+                    next = page.nextSequence();
+                }
+                return batch.hasNext();
+            }
+
+            @Override
+            public StringAnalysis next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return batch.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    long count(FilterCriteria criteria);
+
+    /** The plan {@link #findWithFilters} would use for {@code criteria} right now. */
+    QueryPlan explain(FilterCriteria criteria);
+
+    /** Rows whose characters are exactly {@code frequencies}, in insertion order. */
+    List<StringAnalysis> findAnagrams(CharacterFrequencies frequencies);
+
+    /**
+     * Rows holding at least the given count of every character in {@code frequencies},
+     * in insertion order.
+     */
+    List<StringAnalysis> findContainingAll(CharacterFrequencies frequencies);
+
+    /**
+     * Rows within {@code maxDistance} edits of {@code value}, nearest first. Values longer
+     * than {@link BkTree#MAX_LENGTH} are not searched.
+     */
+    List<EditDistanceMatch> findWithinDistance(String value, int maxDistance);
+
+    /**
+     * Rows whose trigram sets are at least {@code minSimilarity} similar to
+     * {@code value}'s, most similar first. Candidates come from {@link MinHashIndex}, so
+     * a match can be missed, more likely the lower the threshold.
+     */
+    List<JaccardMatch> findSimilar(String value, double minSimilarity);
+
+    /** Number of stored rows, without scanning them. */
+    long size();
+
+    /** Distinct keys held by each secondary index the engine keeps, by index name. */
+    Map<String, Integer> indexSizes();
+
+    /**
+     * Distinct keys held by the index named as in {@link #indexSizes()}, or 0 for an
+     * index the engine does not keep. Only that index is read.
+     */
+    int indexSize(String index);
+
+    void deleteAll();
+}
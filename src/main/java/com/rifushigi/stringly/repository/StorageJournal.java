@@ -0,0 +1,37 @@
+package com.rifushigi.stringly.repository;
+
+import com.rifushigi.stringly.entity.Sha256Hash;
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Receives every write applied through {@link StringAnalysisRepository}, in the order
+ * it was applied for a given id. The returned future completes once the record is as
+ * durable as the journal's policy promises.
+ */
+public interface StorageJournal {
+
+    StorageJournal NONE = new StorageJournal() {
+        @Override
+        public CompletableFuture<Void> saved(StringAnalysis analysis) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> deleted(Sha256Hash id) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> cleared() {
+            return CompletableFuture.completedFuture(null);
+        }
+    };
+
+    CompletableFuture<Void> saved(StringAnalysis analysis);
+
+    CompletableFuture<Void> deleted(Sha256Hash id);
+
+    CompletableFuture<Void> cleared();
+}
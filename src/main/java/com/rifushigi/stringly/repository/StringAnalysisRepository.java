@@ -1,51 +1,227 @@
 package com.rifushigi.stringly.repository;
 
+import com.rifushigi.stringly.entity.CharacterFrequencies;
+import com.rifushigi.stringly.entity.Sha256Hash;
 import com.rifushigi.stringly.entity.StringAnalysis;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Repository
 public class StringAnalysisRepository {
 
-    private final Map<String, StringAnalysis> storage = new ConcurrentHashMap<>();
+    private static final int LOCK_STRIPES = 64;
+
+    private final StorageEngine engine;
+    private final StorageJournal journal;
+    // Writes to one id go to the engine and the journal under the same stripe, and
+    // deleteAll holds every stripe, so the journal replays them in the order the engine
+    // applied them.
+    private final Object[] stripes = new Object[LOCK_STRIPES];
+    // Ids an insert is currently being prepared for, see tryClaim
+    private final Set<Sha256Hash> claims = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+
+    public StringAnalysisRepository(StorageEngine engine, Optional<StorageJournal> journal) {
+        this.engine = engine;
+        this.journal = journal.orElse(StorageJournal.NONE);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
 
     public StringAnalysis save (StringAnalysis analysis) {
-        storage.put(analysis.getId(), analysis);
+        CompletableFuture<Void> durable;
+        synchronized (stripe(analysis.getId())) {
+            engine.save(analysis);
+            version.incrementAndGet();
+            durable = journal.saved(analysis);
+        }
+        durable.join();
         return analysis;
     }
 
-    public Optional<StringAnalysis> findById(String id){
-        return Optional.ofNullable(storage.get(id));
+    /**
+     * Stores the analysis unless its id is already present; the check and the write are
+     * atomic with respect to every other write to that id.
+     */
+    public boolean insertIfAbsent(StringAnalysis analysis) {
+        CompletableFuture<Void> durable;
+        synchronized (stripe(analysis.getId())) {
+            if (engine.existsById(analysis.getId())) {
+                return false;
+            }
+            engine.save(analysis);
+            version.incrementAndGet();
+            durable = journal.saved(analysis);
+        }
+        durable.join();
+        return true;
+    }
+
+    /**
+     * {@link #insertIfAbsent} for many rows, waiting for durability once for the whole
+     * batch. Element {@code i} of the result tells whether row {@code i} was stored.
+     */
+    public boolean[] insertAllIfAbsent(List<StringAnalysis> analyses) {
+        boolean[] inserted = new boolean[analyses.size()];
+        List<CompletableFuture<Void>> durable = new ArrayList<>(analyses.size());
+        for (int i = 0; i < analyses.size(); i++) {
+            StringAnalysis analysis = analyses.get(i);
+            synchronized (stripe(analysis.getId())) {
+                if (engine.existsById(analysis.getId())) {
+                    continue;
+                }
+                engine.save(analysis);
+                version.incrementAndGet();
+                durable.add(journal.saved(analysis));
+            }
+            inserted[i] = true;
+        }
+        CompletableFuture.allOf(durable.toArray(CompletableFuture[]::new)).join();
+        return inserted;
+    }
+
+    /**
+     * Reserves an id ahead of an insert so that concurrent requests for the same id can
+     * be turned away before doing any work. Fails if the id is stored or already claimed;
+     * a successful claim must be given back with {@link #releaseClaim}.
+     */
+    public boolean tryClaim(Sha256Hash id) {
+        if (!claims.add(id)) {
+            return false;
+        }
+        if (engine.existsById(id)) {
+            claims.remove(id);
+            return false;
+        }
+        return true;
+    }
+
+    public void releaseClaim(Sha256Hash id) {
+        claims.remove(id);
+    }
+
+    public Optional<StringAnalysis> findById(Sha256Hash id){
+        return engine.findById(id);
     }
 
     public List<StringAnalysis> findAll(){
-        return storage.values().stream().toList();
+        return engine.findAll();
     }
 
-    public boolean existsById(String id){
-        return storage.containsKey(id);
+    public boolean existsById(Sha256Hash id){
+        return engine.existsById(id);
     }
 
-    public void deleteById(String id){
-        storage.remove(id);
+    public void deleteById(Sha256Hash id){
+        CompletableFuture<Void> durable;
+        synchronized (stripe(id)) {
+            engine.deleteById(id);
+            version.incrementAndGet();
+            durable = journal.deleted(id);
+        }
+        durable.join();
     }
 
     public List<StringAnalysis> findWithFilters(Boolean isPalindrome, Integer minLength,
                                                 Integer maxLength, Integer wordCount, String containsCharacter){
-        return storage.values().stream()
-                .filter(s -> isPalindrome == null || s.getIsPalindrome().equals(isPalindrome))
-                .filter(s -> minLength == null || s.getLength() >= minLength)
-                .filter(s -> maxLength == null || s.getLength() <= maxLength)
-                .filter(s -> wordCount == null || s.getWordCount().equals(wordCount))
-                .filter(s -> containsCharacter == null || s.getValue().toLowerCase().contains(containsCharacter.toLowerCase()))
-                .toList();
+        return engine.findWithFilters(new FilterCriteria(isPalindrome, minLength, maxLength, wordCount, containsCharacter));
+    }
+
+    public List<StringAnalysis> findWithFilters(FilterCriteria criteria) {
+        return engine.findWithFilters(criteria);
+    }
+
+    public Page findPage(FilterCriteria criteria, long afterSequence, int limit) {
+        return engine.findPage(criteria, afterSequence, limit);
+    }
+
+    /** Every match in insertion order, read lazily {@code batchSize} rows at a time. */
+    public Stream<StringAnalysis> streamWithFilters(FilterCriteria criteria, int batchSize) {
+        return engine.stream(criteria, batchSize);
+    }
+
+    public long count(FilterCriteria criteria) {
+        return engine.count(criteria);
+    }
+
+    public QueryPlan explain(FilterCriteria criteria) {
+        return engine.explain(criteria);
+    }
+
+    public List<StringAnalysis> findAnagrams(CharacterFrequencies frequencies) {
+        return engine.findAnagrams(frequencies);
+    }
+
+    public List<StringAnalysis> findContainingAll(CharacterFrequencies frequencies) {
+        return engine.findContainingAll(frequencies);
+    }
+
+    /**
+     * Longest value the edit-distance index holds; a search within {@code k} is only
+     * complete for queries up to {@code MAX_EDIT_DISTANCE_LENGTH - k} long.
+     */
+    public static final int MAX_EDIT_DISTANCE_LENGTH = BkTree.MAX_LENGTH;
+
+    public List<EditDistanceMatch> findWithinDistance(String value, int maxDistance) {
+        return engine.findWithinDistance(value, maxDistance);
+    }
+
+    public List<JaccardMatch> findSimilar(String value, double minSimilarity) {
+        return engine.findSimilar(value, minSimilarity);
+    }
+
+    public long size() {
+        return engine.size();
+    }
+
+    public Map<String, Integer> indexSizes() {
+        return engine.indexSizes();
+    }
+
+    public int indexSize(String index) {
+        return engine.indexSize(index);
     }
 
     public void deleteAll() {
-        storage.clear();
+        CompletableFuture<Void> durable = underEveryStripe(0, () -> {
+            engine.deleteAll();
+            version.incrementAndGet();
+            return journal.cleared();
+        });
+        durable.join();
+    }
+
+    /**
+     * A counter bumped after every change to the stored rows. A result computed after
+     * reading version {@code v} reflects every change up to {@code v}, so it is still
+     * current as long as the version has not moved.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    // Takes the stripes in index order, so it cannot deadlock with another caller
+    private <T> T underEveryStripe(int from, Supplier<T> action) {
+        if (from == LOCK_STRIPES) {
+            return action.get();
+        }
+        synchronized (stripes[from]) {
+            return underEveryStripe(from + 1, action);
+        }
+    }
+
+    private Object stripe(Sha256Hash id) {
+        return stripes[(id.hashCode() & 0x7fffffff) % LOCK_STRIPES];
     }
 }
@@ -0,0 +1,58 @@
+package com.rifushigi.stringly.repository;
+
+import java.util.Arrays;
+
+/**
+ * Trigrams of lower-cased text, each packed into a long. A value is indexed with two
+ * start and two end markers around it, so a prefix or suffix of any length has at least
+ * one trigram of its own ({@code "\2\2a"} for a value starting with "a"), while a
+ * substring needs three characters to have one.
+ * <p>
+ * Every row containing a pattern has all of the pattern's trigrams, but not the other
+ * way round, so rows found through the index still have to be checked against the value.
+ */
+final class Trigrams {
+
+    private static final String START = "\u0002\u0002";
+    private static final String END = "\u0003\u0003";
+    private static final long[] NONE = new long[0];
+
+    private Trigrams() {
+    }
+
+    /** The distinct trigrams of a stored value. */
+    static long[] ofValue(String value) {
+        return of(START + value.toLowerCase() + END);
+    }
+
+    /** Trigrams every value containing {@code folded} has; none below three characters. */
+    static long[] ofSubstring(String folded) {
+        return of(folded);
+    }
+
+    static long[] ofPrefix(String folded) {
+        return folded.isEmpty() ? NONE : of(START + folded);
+    }
+
+    static long[] ofSuffix(String folded) {
+        return folded.isEmpty() ? NONE : of(folded + END);
+    }
+
+    private static long[] of(String text) {
+        if (text.length() < 3) {
+            return NONE;
+        }
+        long[] keys = new long[text.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2);
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return distinct == keys.length ? keys : Arrays.copyOf(keys, distinct);
+    }
+}
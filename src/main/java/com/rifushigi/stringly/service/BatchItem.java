@@ -0,0 +1,15 @@
+package com.rifushigi.stringly.service;
+
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+/**
+ * Outcome for one value of a batch. {@code analysis} is only set for created items.
+ */
+public record BatchItem(String value, Status status, StringAnalysis analysis) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+}
@@ -0,0 +1,48 @@
+package com.rifushigi.stringly.service;
+
+import com.rifushigi.stringly.cache.CacheStats;
+import com.rifushigi.stringly.cache.LruCache;
+import com.rifushigi.stringly.config.LLMProperties;
+import com.rifushigi.stringly.dto.ParseResult;
+
+/**
+ * Remembers what the delegate parsed each query into, so repeated phrasings skip the
+ * model. Queries are keyed on their normalized form; only successful parses are kept,
+ * and failures go back to the delegate the next time.
+ */
+public class CachingLLMService implements LLMService {
+
+    private final LLMService delegate;
+    private final LruCache<String, ParseResult> cache;
+
+    public CachingLLMService(LLMService delegate, LLMProperties.Cache properties) {
+        this.delegate = delegate;
+        this.cache = properties.maxSize() > 0 ? new LruCache<>(properties.maxSize(), properties.ttl()) : null;
+    }
+
+    @Override
+    public ParseResult parseQuery(String query) throws Exception {
+        if (cache == null) {
+            return delegate.parseQuery(query);
+        }
+        String key = QueryNormalizer.normalize(query);
+        ParseResult result = cache.get(key);
+        if (result == null) {
+            result = delegate.parseQuery(query);
+            if (result != null && result.error() == null) {
+                cache.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : new CacheStats(0, 0, 0, 0, 0);
+    }
+
+    public void clear() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.rifushigi.stringly.service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calls to a failing backend for a while. After {@code failureThreshold} failures
+ * in a row the circuit opens and every call is refused; once {@code openDuration} has
+ * passed a single trial call is let through, which closes the circuit on success and
+ * reopens it on failure.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    /**
+     * @param clock source of monotonic nanoseconds, replaceable in tests
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Whether a call may go ahead. Every permitted call must be followed by exactly one of
+     * {@link #onSuccess}, {@link #onFailure} or {@link #onAbandoned}.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED -> {
+                return true;
+            }
+            case OPEN -> {
+                if (clock.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                return true;
+            }
+            default -> {
+                // The trial call is still running
+                return false;
+            }
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    /** The call ended without telling anything about the backend, e.g. the caller was interrupted. */
+    public synchronized void onAbandoned() {
+        if (state == State.HALF_OPEN) {
+            // Let the next caller make the trial instead
+            state = State.OPEN;
+            openedAt = clock.getAsLong() - openNanos;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,9 @@
+package com.rifushigi.stringly.service;
+
+import com.rifushigi.stringly.repository.QueryPlan;
+
+/**
+ * A filter's plan together with the number of rows it actually matched.
+ */
+public record Explanation(QueryPlan plan, long actualRows) {
+}
@@ -0,0 +1,65 @@
+package com.rifushigi.stringly.service;
+
+import com.rifushigi.stringly.cache.CacheStats;
+import com.rifushigi.stringly.cache.LruCache;
+import com.rifushigi.stringly.repository.FilterCriteria;
+import com.rifushigi.stringly.repository.StringAnalysisRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Serialized responses of filter queries, keyed on the parsed filters plus the page
+ * requested. Every entry carries the {@link StringAnalysisRepository#version()} read
+ * before its body was built and is only served while the repository is still at that
+ * version, so any write makes all entries stale at once without touching them.
+ */
+@Component
+public class FilterResultCache {
+
+    public record Key(FilterCriteria criteria, String cursor, Integer limit) {
+    }
+
+    private record Entry(long version, byte[] body) {
+    }
+
+    private final StringAnalysisRepository repository;
+    private final LruCache<Key, Entry> cache;
+    private final long maxEntryBytes;
+
+    public FilterResultCache(StringAnalysisRepository repository, ResultCacheProperties properties) {
+        this.repository = repository;
+        this.cache = properties.maxSize() > 0 ? new LruCache<>(properties.maxSize(), properties.ttl()) : null;
+        this.maxEntryBytes = properties.maxEntrySize().toBytes();
+    }
+
+    /**
+     * The cached body for {@code key} if it is still current, otherwise the one
+     * {@code render} builds, which is cached for later calls.
+     */
+    public byte[] get(Key key, Supplier<byte[]> render) {
+        if (cache == null) {
+            return render.get();
+        }
+        long version = repository.version();
+        Entry entry = cache.get(key, cached -> cached.version() == version);
+        if (entry != null) {
+            return entry.body();
+        }
+        byte[] body = render.get();
+        if (body.length <= maxEntryBytes) {
+            cache.put(key, new Entry(version, body));
+        }
+        return body;
+    }
+
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : new CacheStats(0, 0, 0, 0, 0);
+    }
+
+    public void clear() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+}
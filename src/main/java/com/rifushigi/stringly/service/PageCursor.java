@@ -0,0 +1,42 @@
+package com.rifushigi.stringly.service;
+
+import com.rifushigi.stringly.exception.BadQueryException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Opaque cursor handed to clients: the repository sequence number to resume after,
+ * base64url-encoded so callers do not come to depend on its shape.
+ */
+final class PageCursor {
+
+    private PageCursor() {
+    }
+
+    static String encode(Long sequence) {
+        if (sequence == null) {
+            return null;
+        }
+        byte[] bytes = ByteBuffer.allocate(Long.BYTES).putLong(sequence).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static long decode(String cursor) {
+        if (cursor == null) {
+            return 0L;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length == Long.BYTES) {
+                long sequence = ByteBuffer.wrap(bytes).getLong();
+                if (sequence >= 0) {
+                    return sequence;
+                }
+            }
+        } catch (IllegalArgumentException ignored) {
+            // falls through to the error below
+        }
+        throw new BadQueryException("Invalid cursor");
+    }
+}
@@ -5,8 +5,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rifushigi.stringly.dto.ParseResult;
 import com.rifushigi.stringly.exception.BadQueryException;
 import com.rifushigi.stringly.exception.ConflictException;
+import com.rifushigi.stringly.metrics.StringlyMetrics;
+import com.rifushigi.stringly.metrics.StringlyMetrics.LlmOutcome;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
@@ -17,6 +20,7 @@ import org.springframework.stereotype.Service;
 public class PromptService implements LLMService {
 
     private final ChatClient chatClient;
+    private final StringlyMetrics metrics;
     private final ObjectMapper mapper = new ObjectMapper();
     private static final String SYSTEM_PROMPT = """
             You are an assistant that extracts structured filters from natural language.
@@ -26,11 +30,15 @@ public class PromptService implements LLMService {
             - max_length (integer)
             - word_count (integer)
             - contains_character (single character string)
+            - contains (substring the value must contain)
+            - starts_with (prefix the value must start with)
+            - ends_with (suffix the value must end with)
             
             Examples:
             'all single word palindromic strings' -> {"word_count": 1, "is_palindrome": true}
             'strings longer than 10 characters' -> {"min_length": 11}
             'palindromic strings that contain the letter a' -> {"is_palindrome": true, "contains_character": "a"}
+            'strings starting with "un" that contain "able"' -> {"starts_with": "un", "contains": "able"}
             
             If none apply, return an empty JSON: {}
             If the query parsed but resulted in conflicting filters, return a json object : {error : {"status": 422, "message": "Query parsed but resulted in conflicting filters"}}
@@ -38,21 +46,36 @@ public class PromptService implements LLMService {
             """;
 
 
-    public PromptService(ChatClient.Builder builder) {
+    public PromptService(ChatClient.Builder builder, StringlyMetrics metrics) {
         this.chatClient = builder.build();
+        this.metrics = metrics;
     }
 
     @Override
     public ParseResult parseQuery(String query) throws Exception {
-        ChatResponse response = chatClient.prompt()
-                .system(SYSTEM_PROMPT)
-                .user(query)
-                .call()
-                .chatResponse();
+        long start = System.nanoTime();
+        LlmOutcome outcome = LlmOutcome.SUCCESS;
+        ChatResponse response;
+        try {
+            response = chatClient.prompt()
+                    .system(SYSTEM_PROMPT)
+                    .user(query)
+                    .call()
+                    .chatResponse();
+        } catch (RuntimeException e) {
+            outcome = LlmOutcome.of(e);
+            throw e;
+        } finally {
+            metrics.llmCall(System.nanoTime() - start, outcome);
+        }
 
         if (response == null) {
             throw new Exception("Failed to parse query");
         }
+        Usage usage = response.getMetadata().getUsage();
+        if (usage != null) {
+            metrics.llmTokens(usage.getPromptTokens(), usage.getCompletionTokens());
+        }
 
         String json = response.getResult().getOutput().getText();
 
@@ -0,0 +1,33 @@
+package com.rifushigi.stringly.service;
+
+import java.util.Locale;
+
+/**
+ * The form natural-language queries are compared in, so phrasings that differ only in
+ * case or spacing share cache entries and in-flight calls.
+ */
+final class QueryNormalizer {
+
+    private QueryNormalizer() {
+    }
+
+    /** Trims, lower-cases and collapses every run of whitespace to one space. */
+    static String normalize(String query) {
+        String lower = query.strip().toLowerCase(Locale.ROOT);
+        StringBuilder key = new StringBuilder(lower.length());
+        boolean space = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space) {
+                key.append(' ');
+                space = false;
+            }
+            key.append(c);
+        }
+        return key.toString();
+    }
+}
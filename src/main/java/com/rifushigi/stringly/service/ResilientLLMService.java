@@ -0,0 +1,114 @@
+package com.rifushigi.stringly.service;
+
+import com.rifushigi.stringly.dto.ParseResult;
+import com.rifushigi.stringly.exception.BadQueryException;
+import com.rifushigi.stringly.exception.ConflictException;
+import com.rifushigi.stringly.exception.LLMUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a slow or failing model from holding request threads.
+ * <p>
+ * Calls run on a dedicated pool of {@code maxConcurrentCalls} threads with no queue, so
+ * the pool doubles as a bulkhead: when every thread is busy, including with calls that
+ * already timed out but have not returned yet, the next call is refused at once. Callers
+ * wait at most {@code timeout}, and failures and timeouts feed a {@link CircuitBreaker}
+ * that refuses calls outright while the model keeps failing. Every refusal is a
+ * {@link LLMUnavailableException}.
+ * <p>
+ * A {@link BadQueryException} or {@link ConflictException} means the model answered, so
+ * it counts as a success for the breaker.
+ */
+@Slf4j
+public class ResilientLLMService implements LLMService, AutoCloseable {
+
+    private final LLMService delegate;
+    private final long timeoutNanos;
+    private final CircuitBreaker breaker;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public ResilientLLMService(LLMService delegate, Duration timeout, int maxConcurrentCalls, CircuitBreaker breaker) {
+        this.delegate = delegate;
+        this.timeoutNanos = timeout.toNanos();
+        this.breaker = breaker;
+        this.executor = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 0, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "stringly-llm");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Calls refused by the breaker or the bulkhead, calls that ran past the deadline and
+     * calls that failed, since startup.
+     */
+    public record Stats(CircuitBreaker.State circuit, long rejected, long timeouts, long failures) {
+    }
+
+    @Override
+    public ParseResult parseQuery(String query) throws Exception {
+        if (!breaker.tryAcquire()) {
+            rejected.increment();
+            throw new LLMUnavailableException("Natural language parsing is temporarily unavailable");
+        }
+        Future<ParseResult> call;
+        try {
+            call = executor.submit(() -> delegate.parseQuery(query));
+        } catch (RejectedExecutionException e) {
+            breaker.onAbandoned();
+            rejected.increment();
+            throw new LLMUnavailableException("Too many natural language queries in progress");
+        }
+
+        try {
+            ParseResult result = call.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            breaker.onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            timeouts.increment();
+            breaker.onFailure();
+            throw new LLMUnavailableException("Natural language parsing timed out");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof BadQueryException || cause instanceof ConflictException) {
+                breaker.onSuccess();
+            } else {
+                failures.increment();
+                breaker.onFailure();
+                log.warn("Natural language parsing failed", cause);
+            }
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw (Error) cause;
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            breaker.onAbandoned();
+            throw e;
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(breaker.state(), rejected.sum(), timeouts.sum(), failures.sum());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
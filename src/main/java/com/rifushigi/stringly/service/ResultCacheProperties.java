@@ -0,0 +1,19 @@
+package com.rifushigi.stringly.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link FilterResultCache}. A {@code max-size} of 0 turns the cache off;
+ * bodies larger than {@code max-entry-size} are never cached.
+ */
+@ConfigurationProperties("stringly.result-cache")
+public record ResultCacheProperties(
+        @DefaultValue("256") int maxSize,
+        @DefaultValue("1MB") DataSize maxEntrySize,
+        @DefaultValue("10m") Duration ttl
+) {
+}
@@ -0,0 +1,13 @@
+package com.rifushigi.stringly.service;
+
+import com.rifushigi.stringly.entity.StringAnalysis;
+
+import java.util.List;
+
+/**
+ * A page of filter matches. {@code count} is the total number of matches on the first
+ * page and {@code null} on later ones, and {@code nextCursor} is {@code null} on the last
+ * page.
+ */
+public record ResultPage(List<StringAnalysis> data, Long count, String nextCursor) {
+}
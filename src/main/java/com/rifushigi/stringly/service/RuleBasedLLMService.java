@@ -0,0 +1,396 @@
+package com.rifushigi.stringly.service;
+
+import com.rifushigi.stringly.dto.ParseResult;
+import com.rifushigi.stringly.exception.ConflictException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parses the common phrasings (the ones used as examples in {@link PromptService}'s
+ * prompt) locally and only hands a query to the delegate when it is not sure.
+ * <p>
+ * A query is understood only if every word is either part of a recognised phrase or
+ * filler such as "all", "strings" or "that"; one unknown word, a negation or a phrase
+ * the filters cannot express sends the whole query to the delegate. Recognised phrases:
+ * <ul>
+ *     <li>"palindrome(s)", "palindromic"</li>
+ *     <li>"single word", "N words", "exactly N words"</li>
+ *     <li>"longer/more than N characters", "shorter/fewer/less than N characters",
+ *     "at least/at most N characters", "exactly N characters", "length N"</li>
+ *     <li>"containing/contains/with the letter x", "containing x", "the first vowel"</li>
+ *     <li>"containing the substring abc", "starting/beginning with un", "ending with/in ing"</li>
+ * </ul>
+ */
+public class RuleBasedLLMService implements LLMService {
+
+    private static final Set<String> FILLER = Set.of(
+            "all", "the", "a", "an", "string", "strings", "value", "values", "ones", "entries",
+            "that", "which", "are", "is", "be", "and", "of", "in", "only", "those",
+            "show", "me", "find", "list", "get", "give", "return", "please"
+    );
+    private static final Set<String> PALINDROME = Set.of("palindrome", "palindromes", "palindromic");
+    private static final Set<String> WORD_UNITS = Set.of("word", "words");
+    private static final Set<String> LENGTH_UNITS = Set.of("character", "characters", "char", "chars", "letters");
+    private static final Set<String> CONTAIN = Set.of("contain", "contains", "containing", "include", "includes", "including");
+    private static final Set<String> CONTAIN_WITH = Set.of("with", "having", "has", "have");
+    private static final Set<String> CHARACTER = Set.of("letter", "character", "char");
+    private static final Set<String> TEXT = Set.of("substring", "text", "sequence", "prefix", "suffix");
+    private static final Set<String> STARTS = Set.of("start", "starts", "starting", "begin", "begins", "beginning");
+    private static final Set<String> ENDS = Set.of("end", "ends", "ending");
+    private static final Map<String, Integer> NUMBERS = Map.ofEntries(
+            Map.entry("zero", 0), Map.entry("one", 1), Map.entry("single", 1), Map.entry("two", 2),
+            Map.entry("three", 3), Map.entry("four", 4), Map.entry("five", 5), Map.entry("six", 6),
+            Map.entry("seven", 7), Map.entry("eight", 8), Map.entry("nine", 9), Map.entry("ten", 10)
+    );
+
+    private final LLMService delegate;
+    private final LongAdder local = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public RuleBasedLLMService(LLMService delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Queries parsed here and queries passed on to the delegate, since startup.
+     */
+    public record Stats(long local, long fallbacks) {
+
+        public double fallbackRate() {
+            long total = local + fallbacks;
+            return total == 0 ? 0 : (double) fallbacks / total;
+        }
+    }
+
+    @Override
+    public ParseResult parseQuery(String query) throws Exception {
+        ParseResult result = parse(query);
+        if (result != null) {
+            local.increment();
+            return result;
+        }
+        fallbacks.increment();
+        return delegate.parseQuery(query);
+    }
+
+    public Stats stats() {
+        return new Stats(local.sum(), fallbacks.sum());
+    }
+
+    /**
+     * The filters {@code query} asks for, or {@code null} when it is not fully understood.
+     *
+     * @throws ConflictException if the query is understood but its filters exclude each other
+     */
+    public static ParseResult parse(String query) {
+        return new Parser(tokenize(query)).parse();
+    }
+
+    private static List<String> tokenize(String query) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        String lower = query.toLowerCase(Locale.ROOT);
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (Character.isWhitespace(c) || c == '-' || c == ',' || c == '.' || c == '?' || c == '!'
+                    || c == '\'' || c == '"') {
+                if (!token.isEmpty()) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                }
+            } else {
+                // Symbols could be the character asked for; leave those to the model
+                return List.of("?");
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Parser {
+
+        private final List<String> tokens;
+        private int position;
+
+        private Boolean palindrome;
+        private Integer minLength;
+        private Integer maxLength;
+        private Integer wordCount;
+        private String character;
+        private String contains;
+        private String startsWith;
+        private String endsWith;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        ParseResult parse() {
+            while (position < tokens.size()) {
+                if (!phrase()) {
+                    return null;
+                }
+            }
+            if (palindrome == null && minLength == null && maxLength == null && wordCount == null && character == null
+                    && contains == null && startsWith == null && endsWith == null) {
+                return null;
+            }
+            if ((maxLength != null && maxLength < 0) || (minLength != null && maxLength != null && minLength > maxLength)) {
+                throw new ConflictException("Query parsed but resulted in conflicting filters");
+            }
+            return new ParseResult(palindrome, minLength, maxLength, wordCount, character,
+                    contains, startsWith, endsWith, null);
+        }
+
+        /** Consumes one phrase or filler word; false if the next word is not understood. */
+        private boolean phrase() {
+            String token = next();
+            if (PALINDROME.contains(token)) {
+                palindrome = true;
+                return true;
+            }
+            switch (token) {
+                case "longer", "more", "greater", "over" -> {
+                    return lengthBound(skip("than") || token.equals("over"), 1, true);
+                }
+                case "shorter", "fewer", "less", "under" -> {
+                    return lengthBound(skip("than") || token.equals("under"), -1, false);
+                }
+                case "at" -> {
+                    if (skip("least")) {
+                        return lengthBound(true, 0, true);
+                    }
+                    return skip("most") && lengthBound(true, 0, false);
+                }
+                case "exactly" -> {
+                    return exact();
+                }
+                case "length" -> {
+                    skip("of");
+                    Integer n = number();
+                    return n != null && setLength(n, n);
+                }
+                default -> {
+                }
+            }
+            if (CONTAIN.contains(token)) {
+                return containedCharacter(true);
+            }
+            if (STARTS.contains(token)) {
+                return affix(true);
+            }
+            if (ENDS.contains(token)) {
+                return affix(false);
+            }
+            if (CONTAIN_WITH.contains(token)) {
+                // "with the letter x"; otherwise "with" is just filler, as in "with two words"
+                int mark = position;
+                if (containedCharacter(false)) {
+                    return true;
+                }
+                position = mark;
+                return true;
+            }
+            if (NUMBERS.containsKey(token) || isDigits(token)) {
+                position--;
+                return exact();
+            }
+            return FILLER.contains(token);
+        }
+
+        /** "N words" or "N characters [long]". */
+        private boolean exact() {
+            Integer n = number();
+            if (n == null || position >= tokens.size()) {
+                return false;
+            }
+            String unit = next();
+            if (WORD_UNITS.contains(unit)) {
+                if (wordCount != null && !wordCount.equals(n)) {
+                    throw new ConflictException("Query parsed but resulted in conflicting filters");
+                }
+                wordCount = n;
+                return true;
+            }
+            if (LENGTH_UNITS.contains(unit)) {
+                skip("long");
+                return setLength(n, n);
+            }
+            return false;
+        }
+
+        /**
+         * "than N characters" after a comparison word; {@code offset} turns a strict
+         * bound into an inclusive one.
+         */
+        private boolean lengthBound(boolean comparison, int offset, boolean lower) {
+            Integer n = comparison ? number() : null;
+            if (n == null) {
+                return false;
+            }
+            // A bare "longer than 10" means characters; "longer than two words" is not a length
+            if (position < tokens.size()) {
+                String unit = tokens.get(position);
+                if (WORD_UNITS.contains(unit)) {
+                    return false;
+                }
+                if (LENGTH_UNITS.contains(unit)) {
+                    position++;
+                    skip("long");
+                }
+            }
+            int bound = n + offset;
+            return lower ? setLength(bound, null) : setLength(null, bound);
+        }
+
+        private boolean containedCharacter(boolean bare) {
+            skip("the");
+            if (!article()) {
+                return false;
+            }
+            if (position < tokens.size() && TEXT.contains(tokens.get(position))) {
+                position++;
+                String text = pattern();
+                if (text == null || (contains != null && !contains.equals(text))) {
+                    return false;
+                }
+                contains = text;
+                return true;
+            }
+            boolean named = position < tokens.size() && CHARACTER.contains(tokens.get(position));
+            if (named) {
+                position++;
+            }
+            if (skip("first")) {
+                if (!skip("vowel")) {
+                    return false;
+                }
+                return setCharacter("a");
+            }
+            if ((named || bare) && position < tokens.size() && tokens.get(position).length() == 1) {
+                return setCharacter(next());
+            }
+            return false;
+        }
+
+        /**
+         * Skips "a"/"an" when it is an article, as in "containing an e" or "with a letter
+         * x". Before a word it cannot be an article of, as in "contains a palindrome", the
+         * phrase is not understood; at the end of the query or before filler, "a" is the
+         * letter itself.
+         */
+        private boolean article() {
+            if (position + 1 >= tokens.size()
+                    || !(tokens.get(position).equals("a") || tokens.get(position).equals("an"))) {
+                return true;
+            }
+            String following = tokens.get(position + 1);
+            if (following.length() == 1 || CHARACTER.contains(following) || TEXT.contains(following)) {
+                position++;
+                return true;
+            }
+            return tokens.get(position).equals("a") && FILLER.contains(following);
+        }
+
+        /** "starting with [the letter] x" or "ending with/in ing". */
+        private boolean affix(boolean start) {
+            if (!skip("with") && (start || !skip("in"))) {
+                return false;
+            }
+            skip("the");
+            if (position < tokens.size()
+                    && (CHARACTER.contains(tokens.get(position)) || TEXT.contains(tokens.get(position)))) {
+                position++;
+            }
+            String text = pattern();
+            String previous = start ? startsWith : endsWith;
+            if (text == null || (previous != null && !previous.equals(text))) {
+                return false;
+            }
+            if (start) {
+                startsWith = text;
+            } else {
+                endsWith = text;
+            }
+            return true;
+        }
+
+        /**
+         * The next word as a pattern. A single letter is always taken as is, but a
+         * longer word the parser knows, as in "ending with two words", is not a pattern.
+         */
+        private String pattern() {
+            if (position >= tokens.size()) {
+                return null;
+            }
+            String token = tokens.get(position);
+            if (token.length() > 1 && (FILLER.contains(token) || NUMBERS.containsKey(token) || PALINDROME.contains(token)
+                    || WORD_UNITS.contains(token) || LENGTH_UNITS.contains(token) || CHARACTER.contains(token))) {
+                return null;
+            }
+            position++;
+            return token;
+        }
+
+        private boolean setLength(Integer min, Integer max) {
+            if (min != null) {
+                minLength = minLength == null ? min : Math.max(minLength, min);
+            }
+            if (max != null) {
+                maxLength = maxLength == null ? max : Math.min(maxLength, max);
+            }
+            return true;
+        }
+
+        private boolean setCharacter(String c) {
+            // Only one character filter exists; two different ones are for the model to judge
+            if (character != null && !character.equals(c)) {
+                return false;
+            }
+            character = c;
+            return true;
+        }
+
+        private Integer number() {
+            if (position >= tokens.size()) {
+                return null;
+            }
+            String token = tokens.get(position);
+            Integer n = NUMBERS.get(token);
+            if (n == null && isDigits(token) && token.length() < 10) {
+                n = Integer.parseInt(token);
+            }
+            if (n != null) {
+                position++;
+            }
+            return n;
+        }
+
+        private boolean skip(String word) {
+            if (position < tokens.size() && tokens.get(position).equals(word)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private String next() {
+            return tokens.get(position++);
+        }
+
+        private static boolean isDigits(String token) {
+            for (int i = 0; i < token.length(); i++) {
+                if (token.charAt(i) < '0' || token.charAt(i) > '9') {
+                    return false;
+                }
+            }
+            return !token.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.rifushigi.stringly.service;
+
+import com.rifushigi.stringly.entity.Sha256Hash;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 of a value's UTF-8 form. Each thread keeps its own digest and encode buffer,
+ * and the value is encoded straight into that buffer in fixed-size runs, so hashing
+ * allocates nothing but the result regardless of the value's length.
+ */
+@Component
+public class Sha256Hasher {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    public Sha256Hash hash(String value) {
+        State state = STATE.get();
+        MessageDigest digest = state.digest;
+        byte[] buffer = state.buffer;
+        int position = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (position > BUFFER_SIZE - 4) {
+                digest.update(buffer, 0, position);
+                position = 0;
+            }
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xc0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                char next = i + 1 < length ? value.charAt(i + 1) : 0;
+                if (Character.isHighSurrogate(c) && Character.isLowSurrogate(next)) {
+                    int codePoint = Character.toCodePoint(c, next);
+                    buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+                    i++;
+                } else {
+                    // Same replacement String.getBytes(UTF_8) uses for an unpaired surrogate
+                    buffer[position++] = '?';
+                }
+            } else {
+                buffer[position++] = (byte) (0xe0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        digest.update(buffer, 0, position);
+        // digest() also resets it for the next call on this thread
+        return Sha256Hash.of(digest.digest());
+    }
+
+    /** A fresh digest, for callers that feed bytes in themselves. */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 Algorithm not found", e);
+        }
+    }
+
+    private static final class State {
+        private final MessageDigest digest = newDigest();
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+    }
+}
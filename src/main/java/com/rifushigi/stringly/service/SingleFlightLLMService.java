@@ -0,0 +1,64 @@
+package com.rifushigi.stringly.service;
+
+import com.rifushigi.stringly.dto.ParseResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets only one call per normalized query reach the delegate at a time. The first caller
+ * runs the call on its own thread; callers arriving while it is in flight wait for it and
+ * get the same {@link ParseResult}, or the same exception. Nothing is kept once the call
+ * completes, so a later caller starts a fresh one.
+ */
+public class SingleFlightLLMService implements LLMService {
+
+    private final LLMService delegate;
+    private final ConcurrentHashMap<String, CompletableFuture<ParseResult>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlightLLMService(LLMService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ParseResult parseQuery(String query) throws Exception {
+        String key = QueryNormalizer.normalize(query);
+        CompletableFuture<ParseResult> call = new CompletableFuture<>();
+        CompletableFuture<ParseResult> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        try {
+            ParseResult result = delegate.parseQuery(query);
+            call.complete(result);
+            return result;
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /** Callers that shared another caller's in-flight call instead of making their own. */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    private static ParseResult await(CompletableFuture<ParseResult> call) throws Exception {
+        try {
+            return call.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw (Error) cause;
+        }
+    }
+}
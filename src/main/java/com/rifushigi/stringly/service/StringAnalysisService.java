@@ -1,48 +1,239 @@
 package com.rifushigi.stringly.service;
 
+import com.rifushigi.stringly.entity.CharacterFrequencies;
+import com.rifushigi.stringly.entity.Sha256Hash;
 import com.rifushigi.stringly.entity.StringAnalysis;
+import com.rifushigi.stringly.exception.BadQueryException;
+import com.rifushigi.stringly.exception.PayloadTooLargeException;
 import com.rifushigi.stringly.exception.StringAlreadyExistsException;
 import com.rifushigi.stringly.exception.StringNotFoundException;
+import com.rifushigi.stringly.metrics.SampledTimer;
+import com.rifushigi.stringly.metrics.StringlyMetrics;
+import com.rifushigi.stringly.metrics.StringlyMetrics.AnalysePath;
+import com.rifushigi.stringly.metrics.StringlyMetrics.FilterPath;
+import com.rifushigi.stringly.metrics.StringlyMetrics.RepositoryCall;
+import com.rifushigi.stringly.repository.EditDistanceMatch;
+import com.rifushigi.stringly.repository.FilterCriteria;
+import com.rifushigi.stringly.repository.JaccardMatch;
+import com.rifushigi.stringly.repository.Page;
+import com.rifushigi.stringly.repository.QueryPlan;
 import com.rifushigi.stringly.repository.StringAnalysisRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class StringAnalysisService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 10_000;
+    public static final int MAX_EDIT_DISTANCE = 3;
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final int UPLOAD_CHUNK_SIZE = 8192;
+
     private final StringAnalysisRepository repository;
+    private final StringAnalyzer analyzer;
+    private final Sha256Hasher hasher;
+    private final StringlyMetrics metrics;
+    private final UploadProperties uploadProperties;
 
     public StringAnalysis analyseString(String value) {
-        String sha256Hash = computeSha256Hash(value);
+        return timed(metrics.analyse(AnalysePath.SINGLE),
+                () -> insert(computeSha256Hash(value), value, () -> analyzer.analyse(value)));
+    }
+
+    /**
+     * Analyses a value read from a UTF-8 body in fixed-size chunks. Length, words,
+     * character counts and the SHA-256 digest are updated as the bytes arrive. The value
+     * itself is assembled in a builder sized from {@code contentLength} when it is known
+     * (-1 otherwise) and then copied once into the stored String, so peak memory is
+     * about two copies of the value plus the chunk buffers. Bodies over the configured
+     * maximum are refused before or while they are read.
+     */
+    public StringAnalysis analyseUpload(InputStream body, long contentLength) throws IOException {
+        SampledTimer timer = metrics.analyse(AnalysePath.UPLOAD);
+        long start = timer.start();
+        try {
+            return readUpload(body, contentLength);
+        } finally {
+            timer.stop(start);
+        }
+    }
+
+    private StringAnalysis readUpload(InputStream body, long contentLength) throws IOException {
+        long maxSize = uploadProperties.maxSize().toBytes();
+        if (contentLength > maxSize) {
+            throw tooLarge(maxSize);
+        }
+        MessageDigest digest = Sha256Hasher.newDigest();
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        StringAnalyzer.Accumulator accumulator = analyzer.accumulator();
+        // A UTF-8 body never decodes to more chars than it has bytes
+        int capacity = contentLength > 0 ? (int) Math.min(contentLength, Integer.MAX_VALUE - 8) : 16;
+        StringBuilder value = new StringBuilder(capacity);
+        long total = 0;
+        byte[] buffer = new byte[UPLOAD_CHUNK_SIZE];
+        ByteBuffer bytes = ByteBuffer.wrap(buffer);
+        CharBuffer chars = CharBuffer.allocate(UPLOAD_CHUNK_SIZE);
+
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            int read = body.read(buffer, bytes.position(), bytes.remaining());
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                total += read;
+                if (total > maxSize) {
+                    throw tooLarge(maxSize);
+                }
+                // The body bytes are the UTF-8 form of the value, so they can be hashed as is
+                digest.update(buffer, bytes.position(), read);
+                bytes.position(bytes.position() + read);
+            }
+            bytes.flip();
+            CoderResult result;
+            do {
+                result = decoder.decode(bytes, chars, endOfInput);
+                if (result.isError()) {
+                    throw new BadQueryException("Request body must be valid UTF-8");
+                }
+                drain(chars, accumulator, value);
+            } while (result.isOverflow());
+            bytes.compact();
+        }
+        decoder.flush(chars);
+        drain(chars, accumulator, value);
+
+        String text = value.toString();
+        if (text.isBlank()) {
+            throw new BadQueryException("Request body must contain a non-blank value");
+        }
+        return insert(Sha256Hash.of(digest.digest()), text, () -> accumulator.finish(text));
+    }
+
+    private static PayloadTooLargeException tooLarge(long maxSize) {
+        return new PayloadTooLargeException("Uploads are limited to " + maxSize + " bytes");
+    }
+
+    private static void drain(CharBuffer chars, StringAnalyzer.Accumulator accumulator, StringBuilder value) {
+        chars.flip();
+        accumulator.accept(chars);
+        value.append(chars);
+        chars.clear();
+    }
 
-        Optional<StringAnalysis> existing = repository.findById(sha256Hash);
-        if (existing.isPresent()) {
+    private StringAnalysis insert(Sha256Hash sha256Hash, String value, Supplier<StringAnalyzer.Properties> analyse) {
+        // Claim the id before analysing so concurrent duplicates fail without doing the work
+        if (!repository.tryClaim(sha256Hash)) {
             throw new StringAlreadyExistsException("String already exists in the system");
         }
+        try {
+            StringAnalyzer.Properties properties = analyse.get();
 
-        Integer length = computeLength(value);
-        Boolean isPalindrome = computeIsPalindrome(value);
-        Integer uniqueCharacters = computeUniqueCharacters(value);
-        Integer wordCount = computeWordCount(value);
-        Map<String, Integer> characterFrequencyMap = computeCharacterFrequencyMap(value);
+            StringAnalysis analysis = new StringAnalysis(sha256Hash, value, properties.length(),
+                    properties.isPalindrome(), properties.uniqueCharacters(), properties.wordCount(),
+                    properties.characterFrequencyMap(), LocalDateTime.now());
 
-        StringAnalysis analysis = new StringAnalysis(sha256Hash, value, length, isPalindrome,
-                uniqueCharacters, wordCount, sha256Hash, characterFrequencyMap, LocalDateTime.now());
+            if (!timed(metrics.repository(RepositoryCall.INSERT), () -> repository.insertIfAbsent(analysis))) {
+                throw new StringAlreadyExistsException("String already exists in the system");
+            }
+            return analysis;
+        } finally {
+            repository.releaseClaim(sha256Hash);
+        }
+    }
 
-        return repository.save(analysis);
+    /**
+     * Analyses and stores many values at once. Hashing and analysis run in parallel; a
+     * value that is blank, already stored, claimed by a concurrent request or repeated
+     * earlier in the batch is reported without being analysed. Results follow the input order.
+     */
+    public List<BatchItem> analyseBatch(List<String> values) {
+        if (values.size() > MAX_BATCH_SIZE) {
+            throw new BadQueryException("A batch may hold at most " + MAX_BATCH_SIZE + " values");
+        }
+        return timed(metrics.analyse(AnalysePath.BATCH), () -> analyseAll(values));
+    }
+
+    private List<BatchItem> analyseAll(List<String> values) {
+        int size = values.size();
+        Sha256Hash[] hashes = new Sha256Hash[size];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            String value = values.get(i);
+            if (value != null && !value.isBlank()) {
+                hashes[i] = computeSha256Hash(value);
+            }
+        });
+
+        BatchItem.Status[] statuses = new BatchItem.Status[size];
+        List<Integer> claimed = new ArrayList<>(size);
+        Set<Sha256Hash> seen = new HashSet<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            if (hashes[i] == null) {
+                statuses[i] = BatchItem.Status.INVALID;
+            } else if (!seen.add(hashes[i]) || !repository.tryClaim(hashes[i])) {
+                statuses[i] = BatchItem.Status.DUPLICATE;
+            } else {
+                claimed.add(i);
+            }
+        }
+
+        StringAnalysis[] analyses = new StringAnalysis[size];
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            claimed.parallelStream().forEach(i -> {
+                StringAnalyzer.Properties properties = analyzer.analyse(values.get(i));
+                analyses[i] = new StringAnalysis(hashes[i], values.get(i), properties.length(),
+                        properties.isPalindrome(), properties.uniqueCharacters(), properties.wordCount(),
+                        properties.characterFrequencyMap(), now);
+            });
+            List<StringAnalysis> toInsert = new ArrayList<>(claimed.size());
+            for (int i : claimed) {
+                toInsert.add(analyses[i]);
+            }
+            boolean[] inserted = timed(metrics.repository(RepositoryCall.INSERT_BATCH),
+                    () -> repository.insertAllIfAbsent(toInsert));
+            for (int j = 0; j < inserted.length; j++) {
+                statuses[claimed.get(j)] = inserted[j] ? BatchItem.Status.CREATED : BatchItem.Status.DUPLICATE;
+            }
+        } finally {
+            for (int i : claimed) {
+                repository.releaseClaim(hashes[i]);
+            }
+        }
+
+        List<BatchItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StringAnalysis analysis = statuses[i] == BatchItem.Status.CREATED ? analyses[i] : null;
+            items.add(new BatchItem(values.get(i), statuses[i], analysis));
+        }
+        return items;
     }
 
     public Optional<StringAnalysis> findByValue(String value) {
-        String hash = computeSha256Hash(value);
+        Sha256Hash hash = computeSha256Hash(value);
         Optional<StringAnalysis> result = repository.findById(hash);
 
         if (result.isPresent()) {
@@ -52,74 +243,136 @@ public class StringAnalysisService {
         throw new StringNotFoundException("String does not exist in the system");
     }
 
-    public List<StringAnalysis> findWithFilters(Boolean isPalindrome, Integer minLength, Integer maxLength,
-                                                Integer wordCount, String containsCharacter) {
-        if (isPalindrome == null && minLength == null && maxLength == null &&
-                wordCount == null && containsCharacter == null) {
-                return findAll();
+    public List<StringAnalysis> findWithFilters(FilterCriteria criteria) {
+        SampledTimer timer = metrics.filter(FilterPath.LIST);
+        long start = timer.start();
+        try {
+            List<StringAnalysis> matches = criteria.isEmpty() ? findAll()
+                    : timed(metrics.repository(RepositoryCall.FIND), () -> repository.findWithFilters(criteria));
+            if (SampledTimer.sampled(start)) {
+                metrics.filterMatched(matches.size(), repository.size());
+            }
+            return matches;
+        } finally {
+            timer.stop(start);
         }
-        return repository.findWithFilters(isPalindrome, minLength, maxLength, wordCount, containsCharacter);
     }
 
-    public List<StringAnalysis> findAll() {
-        return repository.findAll();
+    public ResultPage findPageWithFilters(FilterCriteria criteria, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadQueryException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long after = PageCursor.decode(cursor);
+        SampledTimer timer = metrics.filter(FilterPath.PAGE);
+        long start = timer.start();
+        try {
+            Page page = timed(metrics.repository(RepositoryCall.PAGE),
+                    () -> repository.findPage(criteria, after, pageSize));
+            // Counting can cost every candidate row, so only the first page pays for it
+            Long count = cursor == null ? count(criteria) : null;
+            if (count != null && SampledTimer.sampled(start)) {
+                metrics.filterMatched(count, repository.size());
+            }
+            return new ResultPage(page.items(), count, PageCursor.encode(page.nextSequence()));
+        } finally {
+            timer.stop(start);
+        }
     }
 
-    public void deleteByValue(String value) {
-        String hash = computeSha256Hash(value);
-        if (repository.existsById(hash)) {
-            repository.deleteById(hash);
-            return;
+    /**
+     * The plan the engine would run for these filters, with the number of rows they
+     * actually match so the estimates can be checked.
+     */
+    public Explanation explain(FilterCriteria criteria) {
+        QueryPlan plan = repository.explain(criteria);
+        return new Explanation(plan, count(criteria));
+    }
+
+    /** Timed from the call until the stream is closed, so the time covers reading every row. */
+    public Stream<StringAnalysis> streamWithFilters(FilterCriteria criteria) {
+        SampledTimer timer = metrics.filter(FilterPath.STREAM);
+        long start = timer.start();
+        try {
+            return repository.streamWithFilters(criteria, STREAM_BATCH_SIZE).onClose(() -> timer.stop(start));
+        } catch (RuntimeException | Error e) {
+            timer.stop(start);
+            throw e;
         }
-        throw new StringNotFoundException("String does not exists in the system");
     }
 
-    private Integer computeLength(String value) {
-        return value.length();
+    private long count(FilterCriteria criteria) {
+        return timed(metrics.repository(RepositoryCall.COUNT), () -> repository.count(criteria));
     }
 
-    private Boolean computeIsPalindrome(String value) {
-        String cleaned = value.toLowerCase();
-        String reversed = new StringBuilder(cleaned).reverse().toString();
-        return cleaned.equals(reversed);
+    // Stops in finally so that calls which throw are timed too
+    private static <T> T timed(SampledTimer timer, Supplier<T> call) {
+        long start = timer.start();
+        try {
+            return call.get();
+        } finally {
+            timer.stop(start);
+        }
     }
 
-    private Integer computeUniqueCharacters(String value) {
-        return (int) value.chars().distinct().count();
+    /**
+     * Stored strings made of exactly the characters of {@code value}, or with
+     * {@code exact} false, holding at least every character of it as many times.
+     * Characters are compared as stored, so case and whitespace count.
+     */
+    public List<StringAnalysis> findAnagrams(String value, boolean exact) {
+        if (value == null || value.isEmpty()) {
+            throw new BadQueryException("value must not be empty");
+        }
+        CharacterFrequencies frequencies = analyzer.analyse(value).characterFrequencyMap();
+        return exact ? repository.findAnagrams(frequencies) : repository.findContainingAll(frequencies);
     }
 
-    private Integer computeWordCount(String value) {
-        String trimmed = value.trim();
-        if (trimmed.isEmpty()) {
-            return 0;
+    /** Stored strings at most {@code maxDistance} edits from {@code value}, nearest first. */
+    public List<EditDistanceMatch> findWithinDistance(String value, int maxDistance) {
+        if (value == null || value.isEmpty()) {
+            throw new BadQueryException("value must not be empty");
+        }
+        if (maxDistance < 0 || maxDistance > MAX_EDIT_DISTANCE) {
+            throw new BadQueryException("max_distance must be between 0 and " + MAX_EDIT_DISTANCE);
+        }
+        if (value.length() + maxDistance > StringAnalysisRepository.MAX_EDIT_DISTANCE_LENGTH) {
+            throw new BadQueryException("value must be at most "
+                    + (StringAnalysisRepository.MAX_EDIT_DISTANCE_LENGTH - maxDistance)
+                    + " characters for max_distance " + maxDistance);
         }
-        return trimmed.split("\\s+").length;
+        return repository.findWithinDistance(value, maxDistance);
     }
 
-    private String computeSha256Hash(String value) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(value.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 Algorithm not found", e);
+    /**
+     * Stored strings whose character trigrams overlap {@code value}'s with Jaccard
+     * similarity of at least {@code minSimilarity}, most similar first. Candidates come
+     * from an LSH index, so matches well below 0.5 may be missed.
+     */
+    public List<JaccardMatch> findSimilar(String value, double minSimilarity) {
+        if (value == null || value.isEmpty()) {
+            throw new BadQueryException("value must not be empty");
+        }
+        if (!(minSimilarity > 0 && minSimilarity <= 1)) {
+            throw new BadQueryException("min_similarity must be greater than 0 and at most 1");
         }
+        return repository.findSimilar(value, minSimilarity);
+    }
+
+    public List<StringAnalysis> findAll() {
+        return repository.findAll();
     }
 
-    private Map<String, Integer> computeCharacterFrequencyMap(String value) {
-        Map<String, Integer> frequencyMap = new HashMap<>();
-        for (char c : value.toCharArray()) {
-            String key = String.valueOf(c);
-            frequencyMap.put(key, frequencyMap.getOrDefault(key, 0) + 1);
+    public void deleteByValue(String value) {
+        Sha256Hash hash = computeSha256Hash(value);
+        if (repository.existsById(hash)) {
+            repository.deleteById(hash);
+            return;
         }
-        return frequencyMap;
+        throw new StringNotFoundException("String does not exists in the system");
+    }
+
+    private Sha256Hash computeSha256Hash(String value) {
+        return timed(metrics.hash(), () -> hasher.hash(value));
     }
 }
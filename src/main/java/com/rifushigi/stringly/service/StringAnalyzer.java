@@ -0,0 +1,301 @@
+package com.rifushigi.stringly.service;
+
+import com.rifushigi.stringly.entity.CharacterFrequencies;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Computes the derived properties of a string in a single pass over its UTF-16 chars.
+ * <p>
+ * Counting works on primitive arrays: ASCII chars index a 128-slot table directly and
+ * anything else goes through a small open-addressing table, so the loop itself does not
+ * allocate. Pure ASCII input also settles the palindrome check inside the same loop; other
+ * input is compared in place, code point by code point from both ends. Only values whose
+ * lower case {@code toLowerCase} works out from context or expands (capital sigma, U+0130,
+ * or a Lithuanian, Turkish or Azeri default locale) fall back to the original
+ * lower-case-and-reverse comparison, so results do not change.
+ */
+@Component
+public class StringAnalyzer {
+
+    public record Properties(int length, boolean isPalindrome, int uniqueCharacters, int wordCount,
+                             CharacterFrequencies characterFrequencyMap) {
+    }
+
+    public Properties analyse(String value) {
+        int length = value.length();
+        boolean ascii = true;
+        boolean contextual = false;
+        boolean palindrome = true;
+        Tally tally = new Tally(Math.min(length, 16));
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            tally.add(c);
+
+            if (c >= 128) {
+                ascii = false;
+                contextual |= foldsInContext(c);
+            } else if (palindrome && i < length / 2) {
+                char mirror = value.charAt(length - 1 - i);
+                if (mirror < 128 && lowerAscii(c) != lowerAscii(mirror)) {
+                    palindrome = false;
+                }
+            }
+        }
+
+        if (!ascii || !asciiCaseFoldingIsLocaleNeutral()) {
+            palindrome = isPalindrome(value, contextual);
+        }
+        return tally.properties(length, palindrome);
+    }
+
+    /**
+     * Starts an analysis of a value that arrives in chunks. Only the counters are held
+     * while chunks are fed in; the palindrome check keeps a forward and a backward
+     * polynomial hash of the case-folded chars, and the assembled value is only walked
+     * (in place) to confirm a match. Non-ASCII values are walked in place by code point;
+     * chars that need the whole-value fallback are noted as they stream past.
+     */
+    public Accumulator accumulator() {
+        return new Accumulator();
+    }
+
+    public static final class Accumulator {
+
+        // Any odd multiplier works modulo 2^64; this one spreads ASCII well
+        private static final long BASE = 0x100000001b3L;
+
+        private final Tally tally = new Tally(16);
+        private long length;
+        private boolean ascii = true;
+        private boolean contextual;
+        private long forward;
+        private long backward;
+        private long power = 1;
+
+        private Accumulator() {
+        }
+
+        public void accept(CharSequence chunk) {
+            for (int i = 0, n = chunk.length(); i < n; i++) {
+                char c = chunk.charAt(i);
+                tally.add(c);
+                if (c >= 128) {
+                    ascii = false;
+                    contextual |= foldsInContext(c);
+                }
+                char folded = lowerAscii(c);
+                forward = forward * BASE + folded;
+                backward += folded * power;
+                power *= BASE;
+            }
+            length += chunk.length();
+        }
+
+        /**
+         * @param value every chunk passed to {@link #accept}, concatenated
+         */
+        public Properties finish(String value) {
+            if (value.length() != length) {
+                throw new IllegalArgumentException("Value does not match the accepted chunks");
+            }
+            boolean palindrome;
+            if (!ascii || !asciiCaseFoldingIsLocaleNeutral()) {
+                palindrome = isPalindrome(value, contextual);
+            } else {
+                palindrome = forward == backward && isAsciiPalindrome(value);
+            }
+            return tally.properties(value.length(), palindrome);
+        }
+    }
+
+    private static boolean isAsciiPalindrome(String value) {
+        for (int i = 0, j = value.length() - 1; i < j; i++, j--) {
+            if (lowerAscii(value.charAt(i)) != lowerAscii(value.charAt(j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares code points from both ends, lower-cased one at a time, which agrees with
+     * lower-casing and reversing the whole value unless {@code contextual} chars were
+     * seen or the default locale tailors case mappings.
+     */
+    private static boolean isPalindrome(String value, boolean contextual) {
+        if (contextual || !caseFoldingIsLocaleNeutral()) {
+            return isPalindromeSlow(value);
+        }
+        int i = 0;
+        int j = value.length();
+        while (i < j) {
+            int first = value.codePointAt(i);
+            int last = value.codePointBefore(j);
+            i += Character.charCount(first);
+            j -= Character.charCount(last);
+            if (i > j) {
+                // Both ends landed on the same surrogate pair in the middle
+                break;
+            }
+            if (first != last && Character.toLowerCase(first) != Character.toLowerCase(last)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Capital sigma lower-cases by position and U+0130 expands to two chars
+    private static boolean foldsInContext(char c) {
+        return c == '\u03a3' || c == '\u0130';
+    }
+
+    private static boolean caseFoldingIsLocaleNeutral() {
+        return asciiCaseFoldingIsLocaleNeutral() && !"lt".equals(Locale.getDefault().getLanguage());
+    }
+
+    private static boolean isPalindromeSlow(String value) {
+        String cleaned = value.toLowerCase();
+        String reversed = new StringBuilder(cleaned).reverse().toString();
+        return cleaned.equals(reversed);
+    }
+
+    private static boolean asciiCaseFoldingIsLocaleNeutral() {
+        String language = Locale.getDefault().getLanguage();
+        return !"tr".equals(language) && !"az".equals(language);
+    }
+
+    private static char lowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    /**
+     * Per-char occurrence counts, in first-occurrence order, plus the word count. Slot
+     * numbers are stored off by one so a zeroed table means "not seen yet".
+     */
+    private static final class Tally {
+
+        private final int[] asciiSlots = new int[128];
+        private char[] keys;
+        private int[] values;
+        private int size;
+        private char[] table;
+        private int[] tableSlots;
+        private int nonAscii;
+
+        private int words;
+        private int pendingWords;
+        private boolean inWord;
+        private boolean wordCounted;
+        private boolean seenVisible;
+
+        Tally(int expected) {
+            keys = new char[Math.max(expected, 4)];
+            values = new int[keys.length];
+        }
+
+        void add(char c) {
+            count(c);
+
+            // Mirrors trim() followed by split("\\s+"): runs of non-whitespace only count
+            // once they fall between the first and last char above U+0020.
+            if (isRegexWhitespace(c)) {
+                inWord = false;
+                return;
+            }
+            if (!inWord) {
+                inWord = true;
+                if (seenVisible) {
+                    pendingWords++;
+                    wordCounted = true;
+                } else {
+                    wordCounted = false;
+                }
+            }
+            if (c > ' ') {
+                if (!wordCounted) {
+                    words++;
+                    wordCounted = true;
+                }
+                words += pendingWords;
+                pendingWords = 0;
+                seenVisible = true;
+            }
+        }
+
+        Properties properties(int length, boolean palindrome) {
+            return new Properties(length, palindrome, size, words, CharacterFrequencies.of(keys, values, size));
+        }
+
+        private void count(char c) {
+            int slot;
+            if (c < 128) {
+                slot = asciiSlots[c] - 1;
+                if (slot < 0) {
+                    slot = append(c);
+                    asciiSlots[c] = slot + 1;
+                }
+            } else {
+                slot = nonAsciiSlot(c);
+            }
+            values[slot]++;
+        }
+
+        private int nonAsciiSlot(char c) {
+            if (table == null) {
+                table = new char[16];
+                tableSlots = new int[16];
+            }
+            int mask = table.length - 1;
+            int index = (c * 0x9E37) & mask;
+            while (tableSlots[index] != 0) {
+                if (table[index] == c) {
+                    return tableSlots[index] - 1;
+                }
+                index = (index + 1) & mask;
+            }
+            int slot = append(c);
+            table[index] = c;
+            tableSlots[index] = slot + 1;
+            if (++nonAscii * 2 > table.length) {
+                rehash();
+            }
+            return slot;
+        }
+
+        private void rehash() {
+            char[] oldTable = table;
+            int[] oldSlots = tableSlots;
+            table = new char[oldTable.length * 2];
+            tableSlots = new int[oldTable.length * 2];
+            int mask = table.length - 1;
+            for (int i = 0; i < oldTable.length; i++) {
+                if (oldSlots[i] == 0) {
+                    continue;
+                }
+                int index = (oldTable[i] * 0x9E37) & mask;
+                while (tableSlots[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = oldTable[i];
+                tableSlots[index] = oldSlots[i];
+            }
+        }
+
+        private int append(char c) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            keys[size] = c;
+            return size++;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.rifushigi.stringly.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for {@code POST /strings/upload}. Bodies longer than {@code max-size} bytes
+ * are refused, whether or not they declare their length.
+ */
+@ConfigurationProperties("stringly.upload")
+public record UploadProperties(
+        @DefaultValue("64MB") DataSize maxSize
+) {
+}
@@ -0,0 +1,139 @@
+package com.rifushigi.stringly;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rifushigi.stringly.entity.StringAnalysis;
+import com.rifushigi.stringly.repository.StringAnalysisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BulkImportTests {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void importProperties(DynamicPropertyRegistry registry) {
+        registry.add("stringly.import.directory", () -> directory.toString());
+        // Tiny windows and batches so lines straddle windows and batches interleave
+        registry.add("stringly.import.window-size", () -> "16B");
+        registry.add("stringly.import.batch-size", () -> "3");
+        registry.add("stringly.import.workers", () -> "2");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StringAnalysisRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void testImportLines_LoadsEveryLine() throws Exception {
+        Files.writeString(directory.resolve("values.txt"),
+                "racecar\nhello world\r\n\nracecar\na line longer than the sixteen byte window\nlevel");
+
+        JsonNode status = runImport("{\"file\": \"values.txt\"}");
+
+        assertEquals("completed", status.get("state").asText());
+        assertEquals(6, status.get("rows").asLong());
+        assertEquals(4, status.get("created").asLong());
+        assertEquals(1, status.get("duplicates").asLong());
+        assertEquals(1, status.get("invalid").asLong());
+        assertEquals(status.get("total_bytes").asLong(), status.get("bytes_read").asLong());
+        assertEquals(Set.of("racecar", "hello world", "a line longer than the sixteen byte window", "level"), values());
+    }
+
+    @Test
+    void testImportNdjson_ReadsValueFields() throws Exception {
+        Files.writeString(directory.resolve("values.ndjson"),
+                "{\"value\": \"noon\"}\n\"plain string\"\n{\"value\": 42}\nnot json\n");
+
+        JsonNode status = runImport("{\"file\": \"values.ndjson\", \"format\": \"ndjson\"}");
+
+        assertEquals("completed", status.get("state").asText());
+        assertEquals(2, status.get("created").asLong());
+        assertEquals(2, status.get("invalid").asLong());
+        assertEquals(Set.of("noon", "plain string"), values());
+    }
+
+    @Test
+    void testImport_OutsideDirectory_Returns400() throws Exception {
+        mockMvc.perform(post("/admin/imports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"file\": \"../etc/passwd\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/admin/imports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"file\": \"missing.txt\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testImport_SymlinkLeavingDirectory_Returns400() throws Exception {
+        Path outside = Files.createTempFile("outside", ".txt");
+        try {
+            Files.writeString(outside, "secret\n");
+            Files.createSymbolicLink(directory.resolve("link.txt"), outside);
+
+            mockMvc.perform(post("/admin/imports")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"file\": \"link.txt\"}"))
+                    .andExpect(status().isBadRequest());
+        } finally {
+            Files.deleteIfExists(directory.resolve("link.txt"));
+            Files.delete(outside);
+        }
+    }
+
+    private JsonNode runImport(String body) throws Exception {
+        String started = mockMvc.perform(post("/admin/imports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(started).get("id").asLong();
+        for (int attempt = 0; attempt < 200; attempt++) {
+            String current = mockMvc.perform(get("/admin/imports/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode status = objectMapper.readTree(current);
+            if (!"running".equals(status.get("state").asText())) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Import " + id + " did not finish");
+    }
+
+    private Set<String> values() {
+        return repository.findAll().stream().map(StringAnalysis::getValue).collect(Collectors.toSet());
+    }
+}
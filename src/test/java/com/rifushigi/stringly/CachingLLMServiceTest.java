@@ -0,0 +1,102 @@
+package com.rifushigi.stringly;
+
+import com.rifushigi.stringly.cache.CacheStats;
+import com.rifushigi.stringly.cache.LruCache;
+import com.rifushigi.stringly.config.LLMProperties;
+import com.rifushigi.stringly.dto.ParseResult;
+import com.rifushigi.stringly.exception.BadQueryException;
+import com.rifushigi.stringly.service.CachingLLMService;
+import com.rifushigi.stringly.service.LLMService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingLLMServiceTest {
+
+    private static final ParseResult PALINDROMES = new ParseResult(true, null, null, null, null, null, null, null, null);
+
+    @Test
+    void testParseQuery_SkipsDelegateForEquivalentPhrasings() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        LLMService delegate = query -> {
+            calls.incrementAndGet();
+            return PALINDROMES;
+        };
+        CachingLLMService service = new CachingLLMService(delegate, new LLMProperties.Cache(10, Duration.ofMinutes(1)));
+
+        assertSame(PALINDROMES, service.parseQuery("all palindromic strings"));
+        assertSame(PALINDROMES, service.parseQuery("  All   Palindromic\tSTRINGS "));
+        assertSame(PALINDROMES, service.parseQuery("all palindromic strings"));
+
+        assertEquals(1, calls.get());
+        CacheStats stats = service.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.size());
+    }
+
+    @Test
+    void testParseQuery_DoesNotCacheFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        LLMService delegate = query -> {
+            calls.incrementAndGet();
+            throw new BadQueryException("Unable to parse natural language query");
+        };
+        CachingLLMService service = new CachingLLMService(delegate, new LLMProperties.Cache(10, Duration.ofMinutes(1)));
+
+        assertThrows(BadQueryException.class, () -> service.parseQuery("gibberish"));
+        assertThrows(BadQueryException.class, () -> service.parseQuery("gibberish"));
+        assertEquals(2, calls.get());
+        assertEquals(0, service.stats().size());
+    }
+
+    @Test
+    void testParseQuery_ZeroMaxSizeDisablesCache() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        LLMService delegate = query -> {
+            calls.incrementAndGet();
+            return PALINDROMES;
+        };
+        CachingLLMService service = new CachingLLMService(delegate, new LLMProperties.Cache(0, Duration.ofMinutes(1)));
+
+        service.parseQuery("palindromes");
+        service.parseQuery("palindromes");
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testLruCache_EvictsLeastRecentlyUsed() {
+        LruCache<String, Integer> cache = new LruCache<>(2, Duration.ofMinutes(1));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void testLruCache_ExpiresAfterTtl() {
+        AtomicLong now = new AtomicLong();
+        LruCache<String, Integer> cache = new LruCache<>(10, Duration.ofSeconds(5), now::get);
+        cache.put("a", 1);
+
+        now.set(Duration.ofSeconds(4).toNanos());
+        assertEquals(1, cache.get("a"));
+        now.set(Duration.ofSeconds(5).toNanos());
+        assertNull(cache.get("a"));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.evictions());
+        assertEquals(0, stats.size());
+    }
+}
@@ -0,0 +1,190 @@
+package com.rifushigi.stringly;
+
+import com.rifushigi.stringly.entity.StringAnalysis;
+import com.rifushigi.stringly.exception.StringNotFoundException;
+import com.rifushigi.stringly.repository.EditDistanceMatch;
+import com.rifushigi.stringly.repository.FilterCriteria;
+import com.rifushigi.stringly.repository.JaccardMatch;
+import com.rifushigi.stringly.repository.QueryPlan;
+import com.rifushigi.stringly.repository.StringAnalysisRepository;
+import com.rifushigi.stringly.service.Explanation;
+import com.rifushigi.stringly.service.ResultPage;
+import com.rifushigi.stringly.service.StringAnalysisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "stringly.storage.engine=columnar")
+class ColumnarStorageIntegrationTests {
+
+    @Autowired
+    private StringAnalysisService service;
+
+    @Autowired
+    private StringAnalysisRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void testFindWithFilters_MatchesIndexedSemantics() {
+        service.analyseString("racecar");
+        service.analyseString("Level");
+        service.analyseString("hello world");
+        service.analyseString("Zoom");
+
+        assertEquals(List.of("racecar", "Level"), values(repository.findWithFilters(true, null, null, null, null)));
+        assertEquals(List.of("hello world", "Zoom"), values(repository.findWithFilters(false, null, null, null, null)));
+        assertEquals(List.of("racecar", "hello world"), values(repository.findWithFilters(null, 6, null, null, null)));
+        assertEquals(List.of("Level", "Zoom"), values(repository.findWithFilters(null, null, 5, 1, null)));
+        assertEquals(List.of("Level", "hello world"), values(repository.findWithFilters(null, null, null, null, "L")));
+        assertEquals(List.of("hello world"), values(repository.findWithFilters(null, null, null, null, "O W")));
+        assertEquals(List.of("Zoom"), values(repository.findWithFilters(false, 4, 4, 1, "z")));
+        service.analyseString("\u039f\u0394\u039f\u03a3");
+        assertEquals(List.of("\u039f\u0394\u039f\u03a3"), values(repository.findWithFilters(null, null, null, null, "\u03c2")));
+        assertEquals(List.of(), values(repository.findWithFilters(null, null, null, null, "\u03c3")));
+    }
+
+    @Test
+    void testFindWithFilters_SubstringPrefixAndSuffix() {
+        service.analyseString("Unbelievable");
+        service.analyseString("unable");
+        service.analyseString("Table tennis");
+        service.analyseString("running");
+
+        assertEquals(List.of("Unbelievable", "unable", "Table tennis"),
+                values(repository.findWithFilters(new FilterCriteria(null, null, null, null, null, "ABLE", null, null))));
+        assertEquals(List.of("Unbelievable", "unable"),
+                values(repository.findWithFilters(new FilterCriteria(null, null, null, null, null, null, "un", "able"))));
+        assertEquals(List.of("running"),
+                values(repository.findWithFilters(new FilterCriteria(null, null, null, 1, "n", null, null, "ng"))));
+        assertEquals(1, repository.count(new FilterCriteria(null, null, null, null, null, "e t", null, null)));
+    }
+
+    @Test
+    void testFindAnagrams_FollowsDeletesAndCompaction() {
+        for (int i = 0; i < 2000; i++) {
+            service.analyseString("filler " + i);
+        }
+        service.analyseString("listen");
+        service.analyseString("silent");
+        service.analyseString("tinsel town");
+        for (int i = 0; i < 2000; i++) {
+            service.deleteByValue("filler " + i);
+        }
+        service.deleteByValue("silent");
+        service.analyseString("enlist");
+
+        assertEquals(List.of("listen", "enlist"), values(service.findAnagrams("inlets", true)));
+        assertEquals(List.of("listen", "tinsel town", "enlist"), values(service.findAnagrams("nets", false)));
+        assertEquals(List.of(), values(service.findAnagrams("Listen", true)));
+    }
+
+    @Test
+    void testFindSimilar_FollowsDeletesAndCompaction() {
+        for (int i = 0; i < 2000; i++) {
+            service.analyseString("filler " + i);
+        }
+        service.analyseString("kitten");
+        service.analyseString("mitten");
+        service.analyseString("similarity searches");
+        for (int i = 0; i < 2000; i++) {
+            service.deleteByValue("filler " + i);
+        }
+        service.deleteByValue("mitten");
+        service.analyseString("kitchen");
+
+        List<EditDistanceMatch> near = service.findWithinDistance("kitten", 2);
+        assertEquals(List.of("kitten", "kitchen"), near.stream().map(m -> m.analysis().getValue()).toList());
+        assertEquals(List.of(0, 2), near.stream().map(EditDistanceMatch::distance).toList());
+        List<JaccardMatch> similar = service.findSimilar("similarity search", 0.5);
+        assertEquals(List.of("similarity searches"), similar.stream().map(m -> m.analysis().getValue()).toList());
+        assertEquals(3, repository.indexSizes().get("edit_distance"));
+        assertEquals(3, repository.indexSize("edit_distance"));
+        assertEquals(0, repository.indexSize("length"));
+    }
+
+    @Test
+    void testDeleteById_CompactsAndKeepsRowsAddressable() {
+        for (int i = 0; i < 3000; i++) {
+            service.analyseString("value " + i);
+        }
+        for (int i = 0; i < 3000; i += 3) {
+            service.deleteByValue("value " + i);
+        }
+        for (int i = 1; i < 3000; i += 3) {
+            service.deleteByValue("value " + i);
+        }
+
+        assertEquals(1000, repository.findAll().size());
+        assertEquals("value 2", service.findByValue("value 2").orElseThrow().getValue());
+        assertEquals("value 2999", service.findByValue("value 2999").orElseThrow().getValue());
+        assertThrows(StringNotFoundException.class, () -> service.findByValue("value 3"));
+        assertEquals(List.of("value 299", "value 2990", "value 2993", "value 2996", "value 2999"),
+                values(repository.findWithFilters(null, null, null, 2, "299")));
+    }
+
+    @Test
+    void testSave_ReplacingCompactsAndKeepsRowsAddressable() {
+        for (int i = 0; i < 1500; i++) {
+            service.analyseString("value " + i);
+        }
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 1500; i++) {
+                repository.save(service.findByValue("value " + i).orElseThrow());
+            }
+        }
+
+        assertEquals(1500, repository.findAll().size());
+        assertEquals("value 0", service.findByValue("value 0").orElseThrow().getValue());
+        assertEquals("value 1499", service.findByValue("value 1499").orElseThrow().getValue());
+        assertEquals(12, repository.findWithFilters(null, null, null, 2, "149").size());
+    }
+
+    @Test
+    void testFindPageWithFilters_WalksMatchesInInsertionOrder() {
+        for (int i = 0; i < 10; i++) {
+            service.analyseString("row " + i);
+        }
+        service.deleteByValue("row 3");
+
+        ResultPage first = service.findPageWithFilters(new FilterCriteria(null, null, null, 2, null), null, 4);
+        assertEquals(List.of("row 0", "row 1", "row 2", "row 4"), values(first.data()));
+        assertEquals(9, first.count());
+
+        ResultPage second = service.findPageWithFilters(new FilterCriteria(null, null, null, 2, null), first.nextCursor(), 4);
+        assertEquals(List.of("row 5", "row 6", "row 7", "row 8"), values(second.data()));
+        assertNull(second.count());
+
+        ResultPage last = service.findPageWithFilters(new FilterCriteria(null, null, null, 2, null), second.nextCursor(), 4);
+        assertEquals(List.of("row 9"), values(last.data()));
+        assertNull(last.nextCursor());
+        assertEquals(1, service.findPageWithFilters(new FilterCriteria(null, null, null, null, "9"), null, 4).count());
+    }
+
+    @Test
+    void testExplain_ReportsColumnPassesInPlanOrder() {
+        service.analyseString("racecar");
+        service.analyseString("Level");
+        service.analyseString("hello world");
+        service.analyseString("Zoom");
+
+        Explanation explanation = service.explain(new FilterCriteria(false, null, null, 1, "z"));
+        assertEquals("columnar", explanation.plan().engine());
+        assertEquals(List.of("bitmap", "mask", "column"),
+                explanation.plan().steps().stream().map(QueryPlan.Step::access).toList());
+        assertEquals(4, explanation.plan().totalRows());
+        assertEquals(1, explanation.actualRows());
+    }
+
+    private static List<String> values(List<StringAnalysis> analyses) {
+        return analyses.stream().map(StringAnalysis::getValue).toList();
+    }
+}
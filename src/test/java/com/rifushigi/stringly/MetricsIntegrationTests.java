@@ -0,0 +1,95 @@
+package com.rifushigi.stringly;
+
+import com.rifushigi.stringly.metrics.StringlyMetrics.LlmOutcome;
+import com.rifushigi.stringly.repository.StringAnalysisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "stringly.metrics.sample-every=1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StringAnalysisRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    public void testPrometheusEndpoint_ExposesStringlyMeters() throws Exception {
+        mockMvc.perform(post("/strings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"value\": \"racecar\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/strings").param("is_palindrome", "true"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/strings").param("is_palindrome", "true").param("limit", "1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/strings").param("is_palindrome", "true").accept("application/x-ndjson"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/strings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"values\": [\"level\", \"racecar\"]}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/strings/upload")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("noon"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/strings/filter-by-natural-language").param("query", "palindromic strings"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("stringly_store_size 3.0")))
+                .andExpect(content().string(containsString("stringly_index_size{index=\"length\"} 3.0")))
+                .andExpect(content().string(containsString("stringly_llm_call_seconds_count{outcome=\"timeout\"} 0")))
+                .andExpect(content().string(containsString("stringly_analyse_seconds_count{path=\"single\",sampled=\"1/1\"} 1")))
+                .andExpect(content().string(containsString("stringly_analyse_seconds_count{path=\"batch\",sampled=\"1/1\"} 1")))
+                .andExpect(content().string(containsString("stringly_analyse_seconds_count{path=\"upload\",sampled=\"1/1\"} 1")))
+                .andExpect(content().string(containsString("stringly_filter_seconds_count{path=\"page\",sampled=\"1/1\"} 1")))
+                .andExpect(content().string(containsString("stringly_filter_seconds_count{path=\"stream\",sampled=\"1/1\"} 1")))
+                .andExpect(content().string(containsString("stringly_repository_seconds_count{operation=\"count\",sampled=\"1/1\"} 1")))
+                .andExpect(content().string(containsString("stringly_repository_seconds_count{operation=\"insert_batch\",sampled=\"1/1\"} 1")))
+                .andExpect(content().string(containsString("stringly_hash_seconds_count")))
+                .andExpect(content().string(containsString("stringly_filter_selectivity")))
+                .andExpect(content().string(containsString("stringly_serialize_seconds_count")))
+                .andExpect(content().string(containsString("stringly_cache_requests_total{cache=\"results\",result=\"miss\"} 2.0")))
+                .andExpect(content().string(containsString("stringly_llm_parsed_total{parser=\"local\"} 1.0")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")));
+    }
+
+    @Test
+    public void testLlmOutcome_MapsFailuresToAFixedSet() {
+        assertEquals(LlmOutcome.TIMEOUT,
+                LlmOutcome.of(new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out"))));
+        assertEquals(LlmOutcome.REJECTED,
+                LlmOutcome.of(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null)));
+        assertEquals(LlmOutcome.FAILURE,
+                LlmOutcome.of(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", null, null, null)));
+        assertEquals(LlmOutcome.FAILURE, LlmOutcome.of(new IllegalStateException("No choices")));
+    }
+}
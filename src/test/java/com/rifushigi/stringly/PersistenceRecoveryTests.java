@@ -0,0 +1,93 @@
+package com.rifushigi.stringly;
+
+import com.rifushigi.stringly.entity.StringAnalysis;
+import com.rifushigi.stringly.persistence.PersistenceManager;
+import com.rifushigi.stringly.repository.FilterCriteria;
+import com.rifushigi.stringly.repository.StringAnalysisRepository;
+import com.rifushigi.stringly.service.StringAnalysisService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistenceRecoveryTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRestart_RestoresSnapshotAndLogTail() throws Exception {
+        try (ConfigurableApplicationContext context = start("always")) {
+            StringAnalysisService service = context.getBean(StringAnalysisService.class);
+            service.analyseString("racecar");
+            service.analyseString("hello world");
+            service.analyseString("split \uD83D");
+            context.getBean(PersistenceManager.class).snapshot();
+            service.analyseString("level");
+            service.analyseString("smile 😀");
+            service.analyseString("\uDE00 tail");
+            service.deleteByValue("hello world");
+        }
+
+        try (ConfigurableApplicationContext context = start("batch")) {
+            StringAnalysisService service = context.getBean(StringAnalysisService.class);
+            assertEquals(Set.of("racecar", "split \uD83D", "level", "smile 😀", "\uDE00 tail"),
+                    values(context.getBean(StringAnalysisRepository.class).findAll()));
+
+            StringAnalysis racecar = service.findByValue("racecar").orElseThrow();
+            assertTrue(racecar.getIsPalindrome());
+            assertEquals(7, racecar.getLength());
+            assertEquals(2, racecar.getCharacterFrequencyMap().get("r"));
+            assertEquals(1, service.findByValue("smile 😀").orElseThrow().getCharacterFrequencyMap().get("\uD83D"));
+            assertEquals("split \uD83D", service.findByValue("split \uD83D").orElseThrow().getValue());
+            assertEquals("\uDE00 tail", service.findByValue("\uDE00 tail").orElseThrow().getValue());
+            assertEquals(List.of("level"), service.findWithFilters(new FilterCriteria(true, null, 5, null, null)).stream()
+                    .map(StringAnalysis::getValue).toList());
+        }
+    }
+
+    @Test
+    void testRestart_DropsTornLogTail() throws Exception {
+        try (ConfigurableApplicationContext context = start("os")) {
+            context.getBean(StringAnalysisService.class).analyseString("survives");
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(p -> p.getFileName().toString().endsWith(".log")).max(Path::compareTo).orElseThrow();
+        }
+        Files.write(segment, new byte[]{0, 0, 0, 42, 1, 7}, StandardOpenOption.APPEND);
+
+        try (ConfigurableApplicationContext context = start("always")) {
+            StringAnalysisService service = context.getBean(StringAnalysisService.class);
+            assertEquals(Set.of("survives"), values(context.getBean(StringAnalysisRepository.class).findAll()));
+            service.analyseString("after restart");
+        }
+        try (ConfigurableApplicationContext context = start("always")) {
+            assertEquals(Set.of("survives", "after restart"),
+                    values(context.getBean(StringAnalysisRepository.class).findAll()));
+        }
+    }
+
+    private ConfigurableApplicationContext start(String fsync) {
+        return new SpringApplicationBuilder(StringlyApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--stringly.persistence.enabled=true",
+                        "--stringly.persistence.directory=" + directory,
+                        "--stringly.persistence.fsync=" + fsync);
+    }
+
+    private static Set<String> values(List<StringAnalysis> analyses) {
+        return analyses.stream().map(StringAnalysis::getValue).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,105 @@
+package com.rifushigi.stringly;
+
+import com.rifushigi.stringly.dto.ParseResult;
+import com.rifushigi.stringly.exception.BadQueryException;
+import com.rifushigi.stringly.exception.LLMUnavailableException;
+import com.rifushigi.stringly.service.CircuitBreaker;
+import com.rifushigi.stringly.service.ResilientLLMService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientLLMServiceTest {
+
+    private static final ParseResult PALINDROMES = new ParseResult(true, null, null, null, null, null, null, null, null);
+
+    @Test
+    void testParseQuery_TimesOutSlowCalls() {
+        try (ResilientLLMService service = new ResilientLLMService(query -> {
+            Thread.sleep(5_000);
+            return PALINDROMES;
+        }, Duration.ofMillis(50), 2, new CircuitBreaker(5, Duration.ofSeconds(30)))) {
+            long start = System.nanoTime();
+            assertThrows(LLMUnavailableException.class, () -> service.parseQuery("palindromes"));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+            assertEquals(1, service.stats().timeouts());
+        }
+    }
+
+    @Test
+    void testParseQuery_RejectsWhenAllCallsAreBusy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        try (ResilientLLMService service = new ResilientLLMService(query -> {
+            started.countDown();
+            release.await();
+            return PALINDROMES;
+        }, Duration.ofSeconds(5), 1, new CircuitBreaker(5, Duration.ofSeconds(30)))) {
+            Future<ParseResult> first = callers.submit(() -> service.parseQuery("palindromes"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(LLMUnavailableException.class, () -> service.parseQuery("single word"));
+            assertEquals(1, service.stats().rejected());
+
+            release.countDown();
+            assertSame(PALINDROMES, first.get(5, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testParseQuery_OpensCircuitAfterFailuresAndRecovers() throws Exception {
+        AtomicLong now = new AtomicLong();
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger failing = new AtomicInteger(1);
+        CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(30), now::get);
+        try (ResilientLLMService service = new ResilientLLMService(query -> {
+            calls.incrementAndGet();
+            if (failing.get() == 1) {
+                throw new IllegalStateException("model down");
+            }
+            return PALINDROMES;
+        }, Duration.ofSeconds(5), 2, breaker)) {
+            for (int i = 0; i < 3; i++) {
+                assertThrows(IllegalStateException.class, () -> service.parseQuery("palindromes"));
+            }
+            assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+            assertThrows(LLMUnavailableException.class, () -> service.parseQuery("palindromes"));
+            assertEquals(3, calls.get());
+
+            // The trial call after the open period fails, so the circuit opens again
+            now.addAndGet(Duration.ofSeconds(30).toNanos());
+            assertThrows(IllegalStateException.class, () -> service.parseQuery("palindromes"));
+            assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+            now.addAndGet(Duration.ofSeconds(30).toNanos());
+            failing.set(0);
+            assertSame(PALINDROMES, service.parseQuery("palindromes"));
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        }
+    }
+
+    @Test
+    void testParseQuery_ModelAnswersDoNotTripCircuit() {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(30));
+        try (ResilientLLMService service = new ResilientLLMService(query -> {
+            throw new BadQueryException("Unable to parse natural language query");
+        }, Duration.ofSeconds(5), 2, breaker)) {
+            assertThrows(BadQueryException.class, () -> service.parseQuery("gibberish"));
+            assertThrows(BadQueryException.class, () -> service.parseQuery("gibberish"));
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        }
+    }
+}
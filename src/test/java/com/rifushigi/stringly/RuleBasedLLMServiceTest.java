@@ -0,0 +1,103 @@
+package com.rifushigi.stringly;
+
+import com.rifushigi.stringly.dto.ParseResult;
+import com.rifushigi.stringly.exception.ConflictException;
+import com.rifushigi.stringly.service.LLMService;
+import com.rifushigi.stringly.service.RuleBasedLLMService;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleBasedLLMServiceTest {
+
+    @Test
+    void testParse_PromptExamples() {
+        assertEquals(new ParseResult(true, null, null, 1, null, null, null, null, null),
+                RuleBasedLLMService.parse("all single word palindromic strings"));
+        assertEquals(new ParseResult(null, 11, null, null, null, null, null, null, null),
+                RuleBasedLLMService.parse("strings longer than 10 characters"));
+        assertEquals(new ParseResult(true, null, null, null, "a", null, null, null, null),
+                RuleBasedLLMService.parse("palindromic strings that contain the letter a"));
+        assertEquals(new ParseResult(true, null, null, null, "a", null, null, null, null),
+                RuleBasedLLMService.parse("palindromic strings that contain the first vowel"));
+        assertEquals(new ParseResult(null, null, null, null, "z", null, null, null, null),
+                RuleBasedLLMService.parse("strings containing the letter z"));
+    }
+
+    @Test
+    void testParse_LengthBoundsAndCounts() {
+        assertEquals(new ParseResult(null, 3, 9, null, null, null, null, null, null),
+                RuleBasedLLMService.parse("Strings with at least 3 characters and shorter than 10 characters"));
+        assertEquals(new ParseResult(null, 5, 5, 2, null, null, null, null, null),
+                RuleBasedLLMService.parse("two words, exactly 5 characters long"));
+        assertEquals(new ParseResult(null, null, 4, null, "q", null, null, null, null),
+                RuleBasedLLMService.parse("at most four characters with the letter 'q'"));
+    }
+
+    @Test
+    void testParse_SubstringsAndAffixes() {
+        assertEquals(new ParseResult(null, null, null, null, null, null, "un", null, null),
+                RuleBasedLLMService.parse("strings starting with un"));
+        assertEquals(new ParseResult(true, null, null, null, null, null, "r", null, null),
+                RuleBasedLLMService.parse("palindromes beginning with the letter r"));
+        assertEquals(new ParseResult(null, null, null, 1, null, "able", null, "ing", null),
+                RuleBasedLLMService.parse("single word strings containing the substring able and ending in ing"));
+        assertNull(RuleBasedLLMService.parse("strings ending with a vowel"));
+        assertNull(RuleBasedLLMService.parse("strings ending with two words"));
+        assertNull(RuleBasedLLMService.parse("strings starting with un and starting with re"));
+    }
+
+    @Test
+    void testParse_ArticlesBeforeTheLetter() {
+        assertEquals(new ParseResult(null, null, null, null, "e", null, null, null, null),
+                RuleBasedLLMService.parse("strings containing an e"));
+        assertEquals(new ParseResult(null, null, null, null, "x", null, null, null, null),
+                RuleBasedLLMService.parse("strings with a letter x"));
+        assertEquals(new ParseResult(null, null, null, 1, "a", null, null, null, null),
+                RuleBasedLLMService.parse("strings containing a that are one word"));
+        assertEquals(new ParseResult(null, null, null, null, "a", null, null, null, null),
+                RuleBasedLLMService.parse("strings containing a"));
+    }
+
+    @Test
+    void testParse_NotConfident() {
+        assertNull(RuleBasedLLMService.parse("non-palindromic strings"));
+        assertNull(RuleBasedLLMService.parse("strings that are not palindromes"));
+        assertNull(RuleBasedLLMService.parse("strings longer than two words"));
+        assertNull(RuleBasedLLMService.parse("strings containing a hyphen"));
+        assertNull(RuleBasedLLMService.parse("strings that contain a palindrome"));
+        assertNull(RuleBasedLLMService.parse("strings containing vowels"));
+        assertNull(RuleBasedLLMService.parse("strings containing the letter a and the letter b"));
+        assertNull(RuleBasedLLMService.parse("strings containing @"));
+        assertNull(RuleBasedLLMService.parse("all strings"));
+        assertNull(RuleBasedLLMService.parse(""));
+    }
+
+    @Test
+    void testParse_ConflictingBounds() {
+        assertThrows(ConflictException.class,
+                () -> RuleBasedLLMService.parse("longer than 10 characters and shorter than 5 characters"));
+    }
+
+    @Test
+    void testParseQuery_FallsBackAndCounts() throws Exception {
+        ParseResult fromModel = new ParseResult(false, null, null, null, null, null, null, null, null);
+        AtomicInteger calls = new AtomicInteger();
+        LLMService delegate = query -> {
+            calls.incrementAndGet();
+            return fromModel;
+        };
+        RuleBasedLLMService service = new RuleBasedLLMService(delegate);
+
+        assertEquals(new ParseResult(true, null, null, null, null, null, null, null, null), service.parseQuery("palindromes"));
+        assertEquals(new ParseResult(true, null, null, 1, null, null, null, null, null), service.parseQuery("single word palindromes"));
+        assertSame(fromModel, service.parseQuery("strings that read differently backwards"));
+
+        assertEquals(1, calls.get());
+        assertEquals(2, service.stats().local());
+        assertEquals(1, service.stats().fallbacks());
+        assertEquals(1 / 3.0, service.stats().fallbackRate(), 1e-9);
+    }
+}
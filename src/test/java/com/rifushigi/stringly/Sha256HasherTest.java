@@ -0,0 +1,52 @@
+package com.rifushigi.stringly;
+
+import com.rifushigi.stringly.entity.Sha256Hash;
+import com.rifushigi.stringly.service.Sha256Hasher;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Sha256HasherTest {
+
+    private final Sha256Hasher hasher = new Sha256Hasher();
+
+    @Test
+    void testHash_MatchesMessageDigestOfUtf8() throws Exception {
+        String[] values = {"", "hello world", "Été à Noël", "日本語", "😀 smile", "\uD83D", "a\uDE00b", "\uD83D😀",
+                "x".repeat(8190) + "😀😀", "é".repeat(10_000)};
+        for (String value : values) {
+            assertEquals(reference(value), hasher.hash(value), value);
+        }
+    }
+
+    @Test
+    void testHash_MatchesMessageDigestOnRandomInput() throws Exception {
+        Random random = new Random(11);
+        char[] alphabet = {'a', 'Z', ' ', 'é', 'ß', '語', '\uD83D', '\uDE00', '߿', 'ࠀ', '￿'};
+        for (int n = 0; n < 2000; n++) {
+            char[] chars = new char[random.nextInt(n < 1990 ? 64 : 20_000)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            String value = new String(chars);
+            assertEquals(reference(value), hasher.hash(value));
+        }
+    }
+
+    @Test
+    void testHex_RoundTrips() throws Exception {
+        Sha256Hash hash = hasher.hash("hello world");
+        assertEquals("b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9", hash.toHex());
+        assertEquals(HexFormat.of().formatHex(hash.toBytes()), hash.toHex());
+        assertEquals(hash, Sha256Hash.fromHex(hash.toHex()));
+    }
+
+    private static Sha256Hash reference(String value) throws Exception {
+        return Sha256Hash.of(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,95 @@
+package com.rifushigi.stringly;
+
+import com.rifushigi.stringly.dto.ParseResult;
+import com.rifushigi.stringly.exception.BadQueryException;
+import com.rifushigi.stringly.service.LLMService;
+import com.rifushigi.stringly.service.SingleFlightLLMService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightLLMServiceTest {
+
+    private static final int CALLERS = 16;
+
+    @Test
+    void testParseQuery_ConcurrentIdenticalQueriesShareOneCall() throws Exception {
+        ParseResult palindromes = new ParseResult(true, null, null, null, null, null, null, null, null);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        SingleFlightLLMService service = new SingleFlightLLMService(blockingDelegate(calls, release, () -> palindromes));
+
+        List<Future<ParseResult>> results = callConcurrently(service, release);
+
+        for (Future<ParseResult> result : results) {
+            assertSame(palindromes, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(CALLERS - 1, service.coalesced());
+
+        // Nothing is remembered once the call is over
+        service.parseQuery("Palindromes");
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testParseQuery_WaitersShareTheException() throws Exception {
+        BadQueryException failure = new BadQueryException("Unable to parse natural language query");
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        SingleFlightLLMService service = new SingleFlightLLMService(blockingDelegate(calls, release, () -> {
+            throw failure;
+        }));
+
+        List<Future<ParseResult>> results = callConcurrently(service, release);
+
+        for (Future<ParseResult> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        assertEquals(1, calls.get());
+    }
+
+    private interface Answer {
+        ParseResult get() throws Exception;
+    }
+
+    private static LLMService blockingDelegate(AtomicInteger calls, CountDownLatch release, Answer answer) {
+        return query -> {
+            calls.incrementAndGet();
+            release.await();
+            return answer.get();
+        };
+    }
+
+    /**
+     * Starts the callers with differently spaced forms of one query and releases the
+     * delegate once all but the first are waiting on it.
+     */
+    private static List<Future<ParseResult>> callConcurrently(SingleFlightLLMService service, CountDownLatch release)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        List<Future<ParseResult>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            String query = i % 2 == 0 ? "palindromes" : "  PALINDROMES ";
+            results.add(pool.submit(() -> service.parseQuery(query)));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.coalesced() < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        pool.shutdown();
+        return results;
+    }
+}
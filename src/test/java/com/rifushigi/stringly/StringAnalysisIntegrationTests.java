@@ -2,6 +2,15 @@ package com.rifushigi.stringly;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rifushigi.stringly.repository.StringAnalysisRepository;
@@ -15,6 +24,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -224,6 +235,209 @@ public class StringAnalysisIntegrationTests {
                 .andExpect(jsonPath("$.data[0].properties").exists());
     }
 
+    @Test
+    public void testGetAllStrings_CachedResultsFollowWrites() throws Exception {
+        mockMvc.perform(post("/strings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"value\": \"racecar\"}"))
+                .andExpect(status().isCreated());
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/strings").param("is_palindrome", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.count").value(1));
+        }
+
+        mockMvc.perform(post("/strings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"value\": \"level\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/strings").param("is_palindrome", "true"))
+                .andExpect(jsonPath("$.count").value(2));
+
+        mockMvc.perform(delete("/strings/racecar"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/strings").param("is_palindrome", "true"))
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.data[0].value").value("level"));
+
+        mockMvc.perform(get("/admin/caches/results"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", greaterThanOrEqualTo(1)));
+    }
+
+    @Test
+    public void testGetAllStrings_CacheKeyIgnoresCaseAndDefaultLimit() throws Exception {
+        for (String value : List.of("Foolish", "food")) {
+            mockMvc.perform(post("/strings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"value\": \"" + value + "\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        long before = resultCacheHits();
+        mockMvc.perform(get("/strings").param("contains", "Foo").param("contains_character", "L"))
+                .andExpect(jsonPath("$.count").value(1));
+        mockMvc.perform(get("/strings").param("contains", "fOO").param("contains_character", "l"))
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.filters_applied.contains").value("foo"));
+        assertEquals(before + 1, resultCacheHits());
+
+        String cursor = objectMapper.readTree(mockMvc.perform(get("/strings").param("limit", "1"))
+                .andReturn().getResponse().getContentAsString()).get("next_cursor").asText();
+        mockMvc.perform(get("/strings").param("cursor", cursor))
+                .andExpect(jsonPath("$.data[0].value").value("food"));
+        mockMvc.perform(get("/strings").param("cursor", cursor).param("limit", "100"))
+                .andExpect(jsonPath("$.data[0].value").value("food"));
+        assertEquals(before + 2, resultCacheHits());
+    }
+
+    private long resultCacheHits() throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/admin/caches/results"))
+                .andReturn().getResponse().getContentAsString()).get("hits").asLong();
+    }
+
+    @Test
+    public void testGetAllStrings_Explain_OrdersPredicatesBySelectivity() throws Exception {
+        for (String value : List.of("racecar", "level", "hello world", "good morning", "zebra")) {
+            mockMvc.perform(post("/strings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"value\": \"" + value + "\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/strings")
+                        .param("word_count", "1")
+                        .param("contains_character", "z")
+                        .param("explain", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.engine").value("indexed"))
+                .andExpect(jsonPath("$.filters_applied.word_count").value(1))
+                .andExpect(jsonPath("$.steps[0].access").value("index"))
+                .andExpect(jsonPath("$.steps[0].predicate").value("contains 'z'"))
+                .andExpect(jsonPath("$.steps[0].estimated_rows").value(1))
+                .andExpect(jsonPath("$.steps[1].predicate").value("word_count = 1"))
+                .andExpect(jsonPath("$.steps[1].estimated_rows").value(3))
+                .andExpect(jsonPath("$.total_rows").value(5))
+                .andExpect(jsonPath("$.actual_rows").value(1))
+                .andExpect(jsonPath("$.data").doesNotExist());
+    }
+
+    @Test
+    public void testGetAllStrings_FilterBySubstringPrefixAndSuffix() throws Exception {
+        for (String value : List.of("Unbelievable", "unable", "Table tennis", "running", "sing a song")) {
+            mockMvc.perform(post("/strings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"value\": \"" + value + "\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/strings").param("contains", "ABLE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.filters_applied.contains").value("able"));
+        mockMvc.perform(get("/strings").param("starts_with", "un").param("ends_with", "able"))
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.data[*].value", containsInAnyOrder("Unbelievable", "unable")));
+        mockMvc.perform(get("/strings").param("ends_with", "ng").param("word_count", "1"))
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.data[0].value").value("running"));
+        mockMvc.perform(get("/strings").param("contains", "ble t"))
+                .andExpect(jsonPath("$.count").value(1));
+        mockMvc.perform(get("/strings").param("contains", "ng"))
+                .andExpect(jsonPath("$.count").value(2));
+        mockMvc.perform(get("/strings").param("starts_with", "s").param("explain", "true"))
+                .andExpect(jsonPath("$.steps[0].access").value("index"))
+                .andExpect(jsonPath("$.steps[0].predicate").value("starts with \"s\""))
+                .andExpect(jsonPath("$.actual_rows").value(1));
+
+        mockMvc.perform(delete("/strings/unable"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/strings").param("starts_with", "un"))
+                .andExpect(jsonPath("$.count").value(1));
+    }
+
+    @Test
+    public void testGetAnagrams_ExactAndContainingMultiset() throws Exception {
+        for (String value : List.of("listen", "silent", "enlist", "Listen", "tinsel town", "lens")) {
+            mockMvc.perform(post("/strings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"value\": \"" + value + "\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/strings/similar/anagrams").param("value", "inlets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.match").value("exact"))
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.data[*].value", contains("listen", "silent", "enlist")));
+        mockMvc.perform(get("/strings/similar/anagrams").param("value", "nets").param("match", "contains"))
+                .andExpect(jsonPath("$.count").value(5))
+                .andExpect(jsonPath("$.data[*].value", not(hasItem("lens"))));
+        mockMvc.perform(get("/strings/similar/anagrams").param("value", "nn").param("match", "contains"))
+                .andExpect(jsonPath("$.data[*].value", contains("tinsel town")));
+
+        mockMvc.perform(delete("/strings/silent"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/strings/similar/anagrams").param("value", "inlets"))
+                .andExpect(jsonPath("$.data[*].value", contains("listen", "enlist")));
+
+        mockMvc.perform(get("/strings/similar/anagrams").param("value", "inlets").param("match", "fuzzy"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetStringByValue_Anagrams_IsNotShadowedByTheAnagramSearch() throws Exception {
+        mockMvc.perform(get("/strings/anagrams"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/strings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"value\": \"anagrams\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/strings/anagrams"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value").value("anagrams"));
+    }
+
+    @Test
+    public void testGetSimilar_EditDistanceAndJaccard() throws Exception {
+        for (String value : List.of("kitten", "mitten", "kitchen", "sitting",
+                "similarity searches", "dissimilarity search", "similar search")) {
+            mockMvc.perform(post("/strings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"value\": \"" + value + "\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/strings/similar/edit-distance").param("value", "kitten"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.metric").value("edit_distance"))
+                .andExpect(jsonPath("$.data[*].string.value", contains("kitten", "mitten", "kitchen")))
+                .andExpect(jsonPath("$.data[*].distance", contains(0, 1, 2)))
+                .andExpect(jsonPath("$.data[0].similarity").doesNotExist());
+        mockMvc.perform(get("/strings/similar/edit-distance").param("value", "kitten").param("max_distance", "3"))
+                .andExpect(jsonPath("$.count").value(4));
+        mockMvc.perform(get("/strings/similar/jaccard").param("value", "similarity search"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.metric").value("jaccard"))
+                .andExpect(jsonPath("$.data[*].string.value",
+                        contains("similarity searches", "dissimilarity search", "similar search")));
+
+        mockMvc.perform(delete("/strings/mitten"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/strings/similar/edit-distance").param("value", "kitten"))
+                .andExpect(jsonPath("$.data[*].string.value", contains("kitten", "kitchen")));
+
+        mockMvc.perform(get("/strings/similar/edit-distance").param("value", "kitten").param("max_distance", "4"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/strings/similar/edit-distance").param("value", "k".repeat(255)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/strings/similar/jaccard").param("value", "kitten").param("min_similarity", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testGetAllStrings_FilterByPalindrome_Returns200() throws Exception {
         // Create palindrome and non-palindrome strings
@@ -375,6 +589,41 @@ public class StringAnalysisIntegrationTests {
                 .andExpect(jsonPath("$.data[0].value").value("zebra"));
     }
 
+    @Test
+    public void testGetAllStrings_FilterByContainsCharacter_FoldsFinalSigmaInContext() throws Exception {
+        // "\u039f\u0394\u039f\u03a3".toLowerCase() ends in final sigma, as the unindexed filter saw it
+        mockMvc.perform(post("/strings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .content("{\"value\": \"\u039f\u0394\u039f\u03a3\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/strings").param("contains_character", "\u03c2"))
+                .andExpect(jsonPath("$.count").value(1));
+        mockMvc.perform(get("/strings").param("contains_character", "\u03c3"))
+                .andExpect(jsonPath("$.count").value(0));
+    }
+
+    @Test
+    public void testGetAllStrings_FilterByContainsSubstring_Returns200() throws Exception {
+        mockMvc.perform(post("/strings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"value\": \"Hello\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/strings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"value\": \"hola l\"}"))
+                .andExpect(status().isCreated());
+
+        // Both strings carry 'h' and 'l', only one contains "hel" (case-insensitive)
+        mockMvc.perform(get("/strings")
+                        .param("contains_character", "HEL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].value").value("Hello"));
+    }
+
     @Test
     public void testGetAllStrings_MultipleFilters_Returns200() throws Exception {
         mockMvc.perform(post("/strings")
@@ -401,6 +650,239 @@ public class StringAnalysisIntegrationTests {
                 .andExpect(jsonPath("$.count").value(2));
     }
 
+    @Test
+    public void testGetAllStrings_DeletedStringsLeaveFilters_Returns200() throws Exception {
+        mockMvc.perform(post("/strings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"value\": \"racecar\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/strings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"value\": \"level\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(delete("/strings/{string_value}", "racecar"))
+                .andExpect(status().isNoContent());
+
+        // Filter: is_palindrome=true AND word_count=1 AND max_length=7
+        mockMvc.perform(get("/strings")
+                        .param("is_palindrome", "true")
+                        .param("word_count", "1")
+                        .param("max_length", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].value").value("level"));
+
+        // Filter: min_length greater than max_length matches nothing
+        mockMvc.perform(get("/strings")
+                        .param("min_length", "6")
+                        .param("max_length", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(0));
+    }
+
+    @Test
+    public void testGetAllStrings_Paginated_Returns200() throws Exception {
+        for (String value : new String[]{"alpha", "racecar", "beta", "level", "gamma", "deed"}) {
+            mockMvc.perform(post("/strings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"value\": \"" + value + "\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        // First page of palindromes, in insertion order
+        MvcResult first = mockMvc.perform(get("/strings")
+                        .param("is_palindrome", "true")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].value").value("racecar"))
+                .andExpect(jsonPath("$.data[1].value").value("level"))
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.next_cursor").isString())
+                .andReturn();
+        String cursor = objectMapper.readTree(first.getResponse().getContentAsString()).get("next_cursor").asText();
+
+        // A write after the first page does not shift the second one
+        mockMvc.perform(delete("/strings/{string_value}", "racecar"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/strings")
+                        .param("is_palindrome", "true")
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].value").value("deed"))
+                .andExpect(jsonPath("$.count").value(nullValue()))
+                .andExpect(jsonPath("$.next_cursor").value(nullValue()));
+    }
+
+    @Test
+    public void testUploadString_AnalysesRawBody() throws Exception {
+        mockMvc.perform(post("/strings/upload")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("hello world"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value("b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9"))
+                .andExpect(jsonPath("$.properties.length").value(11))
+                .andExpect(jsonPath("$.properties.word_count").value(2))
+                .andExpect(jsonPath("$.properties.unique_characters").value(8))
+                .andExpect(jsonPath("$.properties.character_frequency_map.l").value(3));
+
+        // Same id as the JSON endpoint, so it is a duplicate there
+        mockMvc.perform(post("/strings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"value\": \"hello world\"}"))
+                .andExpect(status().isConflict());
+
+        String unicode = "Été à Noël";
+        mockMvc.perform(post("/strings/upload")
+                        .contentType("text/plain;charset=UTF-8")
+                        .content(unicode.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.properties.length").value(10));
+        mockMvc.perform(get("/strings/{value}", unicode))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testUploadString_LargePalindromeSpanningChunks() throws Exception {
+        String half = "Ab c".repeat(50_000);
+        String value = half + new StringBuilder(half).reverse();
+
+        mockMvc.perform(post("/strings/upload")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(value))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.properties.length").value(value.length()))
+                .andExpect(jsonPath("$.properties.is_palindrome").value(true))
+                .andExpect(jsonPath("$.properties.word_count").value(value.trim().split("\\s+").length));
+
+        mockMvc.perform(post("/strings/upload")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(value + "x"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.properties.is_palindrome").value(false));
+    }
+
+    @Test
+    public void testUploadString_InvalidBody_Returns400() throws Exception {
+        mockMvc.perform(post("/strings/upload")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(new byte[]{'a', (byte) 0xC3}))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/strings/upload")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("  "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testPostBatch_ReportsStatusPerItem() throws Exception {
+        mockMvc.perform(post("/strings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"value\": \"already here\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/strings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"values\": [\"racecar\", \"already here\", \"hello world\", \"racecar\", \" \"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.duplicates").value(2))
+                .andExpect(jsonPath("$.invalid").value(1))
+                .andExpect(jsonPath("$.results[*].status").value(contains("created", "duplicate", "created", "duplicate", "invalid")))
+                .andExpect(jsonPath("$.results[2].id").value("b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9"))
+                .andExpect(jsonPath("$.results[1].id").doesNotExist());
+
+        mockMvc.perform(get("/strings/racecar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.properties.is_palindrome").value(true));
+        mockMvc.perform(get("/strings"))
+                .andExpect(jsonPath("$.count").value(3));
+    }
+
+    @Test
+    public void testPostBatch_MissingValues_Returns400() throws Exception {
+        mockMvc.perform(post("/strings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testPostString_ConcurrentDuplicates_ExactlyOneCreated() throws Exception {
+        int requests = 64;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/strings")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content("{\"value\": \"contended value\"}"))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (Future<Integer> status : statuses) {
+                counts.merge(status.get(30, TimeUnit.SECONDS), 1, Integer::sum);
+            }
+            assertEquals(Map.of(201, 1, 409, requests - 1), counts);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        mockMvc.perform(get("/strings"))
+                .andExpect(jsonPath("$.count").value(1));
+    }
+
+    @Test
+    public void testGetAllStrings_Ndjson_StreamsOneObjectPerLine() throws Exception {
+        for (String value : new String[]{"racecar", "hello", "level"}) {
+            mockMvc.perform(post("/strings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"value\": \"" + value + "\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult result = mockMvc.perform(get("/strings")
+                        .accept("application/x-ndjson")
+                        .param("is_palindrome", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("racecar", objectMapper.readTree(lines[0]).get("value").asText());
+        assertEquals("level", objectMapper.readTree(lines[1]).get("value").asText());
+        assertTrue(objectMapper.readTree(lines[1]).get("properties").get("is_palindrome").asBoolean());
+
+        // Without the Accept header the regular JSON document is returned
+        mockMvc.perform(get("/strings"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.count").value(3));
+    }
+
+    @Test
+    public void testGetAllStrings_InvalidPageParameters_Returns400() throws Exception {
+        mockMvc.perform(get("/strings")
+                        .param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/strings")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testNaturalLanguageFilter_AllSingleWordPalindromicStrings() throws Exception {
         // Setup test data
@@ -1,17 +1,29 @@
 package com.rifushigi.stringly;
 
+import com.rifushigi.stringly.entity.Sha256Hash;
 import com.rifushigi.stringly.entity.StringAnalysis;
+import com.rifushigi.stringly.exception.PayloadTooLargeException;
 import com.rifushigi.stringly.exception.StringAlreadyExistsException;
 import com.rifushigi.stringly.exception.StringNotFoundException;
+import com.rifushigi.stringly.metrics.MetricsProperties;
+import com.rifushigi.stringly.metrics.StringlyMetrics;
 import com.rifushigi.stringly.repository.StringAnalysisRepository;
+import com.rifushigi.stringly.service.Sha256Hasher;
 import com.rifushigi.stringly.service.StringAnalysisService;
+import com.rifushigi.stringly.service.StringAnalyzer;
+import com.rifushigi.stringly.service.UploadProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +36,18 @@ class StringAnalysisServiceTest {
     @Mock
     private StringAnalysisRepository repository;
 
+    @Spy
+    private StringAnalyzer analyzer = new StringAnalyzer();
+
+    @Spy
+    private Sha256Hasher hasher = new Sha256Hasher();
+
+    @Spy
+    private StringlyMetrics metrics = new StringlyMetrics(new SimpleMeterRegistry(), new MetricsProperties(1));
+
+    @Spy
+    private UploadProperties uploadProperties = new UploadProperties(DataSize.ofBytes(16));
+
     @InjectMocks
     private StringAnalysisService service;
 
@@ -36,8 +60,8 @@ class StringAnalysisServiceTest {
     void testAnalyseString_CorrectCalculations() {
         String value = "hello world";
 
-        when(repository.findById(any())).thenReturn(Optional.empty());
-        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.tryClaim(any())).thenReturn(true);
+        when(repository.insertIfAbsent(any())).thenReturn(true);
 
         StringAnalysis result = service.analyseString(value);
 
@@ -47,6 +71,8 @@ class StringAnalysisServiceTest {
         assertEquals(8, result.getUniqueCharacters()); // h,e,l,o, ,w,r,d
         assertEquals(2, result.getWordCount());
         assertNotNull(result.getSha256Hash());
+        assertEquals("b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9", result.getSha256Hash().toHex());
+        assertEquals(result.getSha256Hash(), Sha256Hash.fromHex(result.getSha256Hash().toHex()));
 
         assertEquals(3, result.getCharacterFrequencyMap().get("l"));
         assertEquals(2, result.getCharacterFrequencyMap().get("o"));
@@ -55,8 +81,8 @@ class StringAnalysisServiceTest {
 
     @Test
     void testAnalyseString_Palindrome_DoesNotStripSpaces() {
-        when(repository.findById(any())).thenReturn(Optional.empty());
-        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.tryClaim(any())).thenReturn(true);
+        when(repository.insertIfAbsent(any())).thenReturn(true);
 
         // "a b a" is NOT a palindrome when spaces are included
         StringAnalysis result1 = service.analyseString("a b a");
@@ -73,8 +99,8 @@ class StringAnalysisServiceTest {
 
     @Test
     void testAnalyseString_CharacterFrequencyIncludesSpaces() {
-        when(repository.findById(any())).thenReturn(Optional.empty());
-        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.tryClaim(any())).thenReturn(true);
+        when(repository.insertIfAbsent(any())).thenReturn(true);
 
         StringAnalysis result = service.analyseString("a a b");
 
@@ -86,15 +112,38 @@ class StringAnalysisServiceTest {
     @Test
     void testAnalyseString_Duplicate_ThrowsException() {
         String value = "duplicate";
-        StringAnalysis existing = new StringAnalysis();
 
-        when(repository.findById(any())).thenReturn(Optional.of(existing));
+        when(repository.tryClaim(any())).thenReturn(false);
 
         assertThrows(StringAlreadyExistsException.class, () -> service.analyseString(value));
 
+        verify(analyzer, never()).analyse(any());
+        verify(repository, never()).insertIfAbsent(any());
         verify(repository, never()).save(any());
     }
 
+    @Test
+    void testAnalyseUpload_OverMaxSize_ThrowsException() {
+        byte[] body = "seventeen bytes!!".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(PayloadTooLargeException.class,
+                () -> service.analyseUpload(new ByteArrayInputStream(body), body.length));
+        assertThrows(PayloadTooLargeException.class,
+                () -> service.analyseUpload(new ByteArrayInputStream(body), -1));
+        verify(repository, never()).tryClaim(any());
+    }
+
+    @Test
+    void testAnalyseUpload_AtMaxSizeWithoutLength_IsAnalysed() throws Exception {
+        when(repository.tryClaim(any())).thenReturn(true);
+        when(repository.insertIfAbsent(any())).thenReturn(true);
+        byte[] body = "sixteen bytes!!!".getBytes(StandardCharsets.UTF_8);
+
+        StringAnalysis result = service.analyseUpload(new ByteArrayInputStream(body), -1);
+
+        assertEquals(16, result.getLength());
+    }
+
     @Test
     void testFindByValue_NotFound_ThrowsException() {
         when(repository.findById(any())).thenReturn(Optional.empty());
@@ -0,0 +1,87 @@
+package com.rifushigi.stringly;
+
+import com.rifushigi.stringly.service.StringAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StringAnalyzerTest {
+
+    private final StringAnalyzer analyzer = new StringAnalyzer();
+
+    @Test
+    void testAnalyse_MatchesReferenceOnEdgeCases() {
+        String[] values = {
+                "", " ", "a", "hello world", "RaceCar", "race car", "A man a plan",
+                "  leading and trailing  ", "tabs\tand\nnewlines\r\n", "\u0001 abc", "abc \u0001",
+                "a \u0001 b", "\u0001a\u0001", "\u000b\f", "x\u001fy z",
+                "été", "Ωmega", "İstanbul", "ǅ", "😀", "😀😀",
+                "a😀a", " non breaking ", "日本 語 日本",
+                "ΣΑΣ", "σας", "Άμα Ά", "\uDE00\uD83D", "\uD83D\uDE00\uD83D", "ǄxǆǅxǄ", "İxi̇"
+        };
+        for (String value : values) {
+            assertMatchesReference(value);
+        }
+    }
+
+    @Test
+    void testAnalyse_MatchesReferenceOnRandomInput() {
+        Random random = new Random(42);
+        char[] alphabet = "aAbB \t\n\u0001éÉİΩωΣσς😀".toCharArray();
+        for (int n = 0; n < 5000; n++) {
+            int length = random.nextInt(24);
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            assertMatchesReference(new String(chars));
+            String half = new String(chars);
+            assertMatchesReference(half + new StringBuilder(half).reverse());
+        }
+    }
+
+    @Test
+    void testAccumulator_MatchesAnalyseForAnyChunking() {
+        Random random = new Random(7);
+        char[] alphabet = "aAbB \t\n\u0001éÉİΩωΣσς😀".toCharArray();
+        for (int n = 0; n < 2000; n++) {
+            char[] chars = new char[random.nextInt(40)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            String half = new String(chars);
+            for (String value : new String[]{half, half + new StringBuilder(half).reverse()}) {
+                StringAnalyzer.Accumulator accumulator = analyzer.accumulator();
+                int position = 0;
+                while (position < value.length()) {
+                    int end = Math.min(value.length(), position + 1 + random.nextInt(5));
+                    accumulator.accept(value.substring(position, end));
+                    position = end;
+                }
+                assertEquals(analyzer.analyse(value), accumulator.finish(value), "for \"" + value + "\"");
+            }
+        }
+    }
+
+    private void assertMatchesReference(String value) {
+        StringAnalyzer.Properties properties = analyzer.analyse(value);
+
+        String lower = value.toLowerCase();
+        String trimmed = value.trim();
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (char c : value.toCharArray()) {
+            frequencies.merge(String.valueOf(c), 1, Integer::sum);
+        }
+
+        String label = "for \"" + value + "\"";
+        assertEquals(value.length(), properties.length(), label);
+        assertEquals(lower.equals(new StringBuilder(lower).reverse().toString()), properties.isPalindrome(), label);
+        assertEquals((int) value.chars().distinct().count(), properties.uniqueCharacters(), label);
+        assertEquals(trimmed.isEmpty() ? 0 : trimmed.split("\\s+").length, properties.wordCount(), label);
+        assertEquals(frequencies, properties.characterFrequencyMap(), label);
+    }
+}